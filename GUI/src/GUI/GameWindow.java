@@ -3,13 +3,15 @@ package GUI;
 import objects.Board;
 import objects.Cell;
 import solver.backtracking.BacktrackingSolverAC3;
-import util.BoardImporter;
+import util.BoardCache;
+import util.SolutionStore;
 
 import javax.imageio.ImageIO;
 import javax.swing.*;
 import java.awt.*;
 import java.awt.event.*;
 import java.io.File;
+import java.io.IOException;
 import java.util.*;
 import java.util.List;
 import javax.swing.Timer;
@@ -47,7 +49,10 @@ public class GameWindow extends JFrame {
         MAX_LEVELS.put(30, 1);
     }
 
-    // hardcoded solutions for 20x20 and 30x30
+    // solved boards (and their rotations/mirror images) are kept in solutions.cqs, null if it can't be opened
+    private static final SolutionStore SOLUTIONS = openSolutions();
+
+    // hardcoded solutions for 20x20 and 30x30, too slow to solve here, they seed an empty solutions.cqs
     // each int[] is {row, col}, ordered by color symbol (A, B, C...)
     private static final int[][] PRELOADED_20x20 = {
         {15,14},{14,1},{17,16},{3,0},{0,12},{10,9},{1,7},{5,8},
@@ -199,7 +204,7 @@ public class GameWindow extends JFrame {
         for (ActionListener al : levelListeners) levelDropdown.addActionListener(al);
 
         try {
-            List<Cell> cells = BoardImporter.importBoard(size, level);
+            List<Cell> cells = BoardCache.get(size, level);
             board = new Board(size, cells);
             queenPlaced = new boolean[size][size];
 
@@ -214,17 +219,25 @@ public class GameWindow extends JFrame {
             boardPanel.revalidate();
             boardPanel.repaint();
 
-            if (size == 20) {
+            int[][] stored = (SOLUTIONS != null) ? SOLUTIONS.get(board) : null;
+            if (stored != null) {
+                solution = byColor(board, stored);
+            } else if (size == 20) {
                 solution = PRELOADED_20x20;
+                storeSolution(board, solution);
             } else if (size == 30) {
                 solution = PRELOADED_30x30;
+                storeSolution(board, solution);
             } else {
+                Board solving = board;
                 currentWorker = new SwingWorker<>() {
                     @Override
                     protected int[][] doInBackground() {
-                        BacktrackingSolverAC3 solver = new BacktrackingSolverAC3(board);
+                        BacktrackingSolverAC3 solver = new BacktrackingSolverAC3(solving);
                         solver.solve();
-                        return solver.getSolutionAsGrid();
+                        int[][] grid = solver.getSolutionAsGrid();
+                        if (grid != null) storeSolution(solving, grid);
+                        return grid;
                     }
 
                     @Override
@@ -246,6 +259,39 @@ public class GameWindow extends JFrame {
         }
     }
 
+    private static SolutionStore openSolutions() {
+        try {
+            return SolutionStore.open();
+        } catch (IOException e) {
+            System.err.println("Solution store unavailable: " + e.getMessage());
+            return null;
+        }
+    }
+
+    private static void storeSolution(Board board, int[][] solution) {
+        if (SOLUTIONS == null) return;
+        try {
+            SOLUTIONS.put(board, Arrays.asList(solution));
+        } catch (IOException | RuntimeException e) {
+            System.err.println("Could not store solution: " + e.getMessage());
+        }
+    }
+
+    // the store returns queens by row, the window wants them ordered by color like the solver
+    private static int[][] byColor(Board board, int[][] queens) {
+        boolean[][] isQueen = new boolean[board.getSize()][board.getSize()];
+        for (int[] q : queens) isQueen[q[0]][q[1]] = true;
+
+        List<String> colors = board.getColors();
+        int[][] result = new int[colors.size()][];
+        for (int i = 0; i < colors.size(); i++) {
+            for (int[] cell : board.getColorMap().get(colors.get(i))) {
+                if (isQueen[cell[0]][cell[1]]) result[i] = new int[]{cell[0], cell[1]};
+            }
+        }
+        return result;
+    }
+
     private void applySolution() {
         if (solution == null) {
             JOptionPane.showMessageDialog(this, "Solution not ready yet, please wait.");
@@ -270,7 +316,7 @@ public class GameWindow extends JFrame {
             return;
         }
 
-        List<String> colors = new ArrayList<>(board.getColorMap().keySet());
+        List<String> colors = board.getColors();
 
         for (int i = 0; i < solution.length; i++) {
             int[] correctPos = solution[i];
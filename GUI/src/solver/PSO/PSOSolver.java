@@ -93,7 +93,7 @@ public class PSOSolver {
         this.size = this.board.getSize();
         
         this.colorCells = this.board.getColorMap();
-        this.colors = new ArrayList<>(this.colorCells.keySet());
+        this.colors = new ArrayList<>(this.board.getColors());
 
         this.solution = new int[colors.size()];
         Arrays.fill(solution, -1);
@@ -95,7 +95,7 @@ public class PSOSolverTest {
         this.size = this.board.getSize();
         
         this.colorCells = this.board.getColorMap();
-        this.colors = new ArrayList<>(this.colorCells.keySet());
+        this.colors = new ArrayList<>(this.board.getColors());
 
         this.nIterations = nIterations;
         this.nParticles = nParticles;
@@ -50,7 +50,7 @@ public class BacktrackingSolverAC3 {
         this.board = board;
         this.size = board.getSize();
         this.colorCells = board.getColorMap();
-        this.colors = new ArrayList<>(colorCells.keySet());
+        this.colors = new ArrayList<>(board.getColors());
         this.solution = new int[colors.size()];
         Arrays.fill(solution, -1);
         this.occupied = new boolean[size][size];
@@ -45,7 +45,7 @@ public class BacktrackingSolverTest {
         this.board = board;
         this.size = this.board.getSize();
         this.colorCells = board.getColorMap();
-        this.colors = new ArrayList<>(colorCells.keySet());
+        this.colors = new ArrayList<>(board.getColors());
         this.solution = new int[colors.size()];
         Arrays.fill(solution, -1);
         this.occupied = new boolean[size][size];
@@ -0,0 +1,47 @@
+package util;
+
+import java.io.IOException;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import objects.Cell;
+
+// Keeps the most recently opened boards so switching back to a level does not re-read its JSON.
+// Bounded LRU keyed by (size, level), access-ordered LinkedHashMap behind one lock.
+public class BoardCache {
+
+    private static final int CAPACITY = 64;
+
+    private static final Map<Long, List<Cell>> boards = new LinkedHashMap<>(CAPACITY, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<Long, List<Cell>> eldest) {
+            return size() > CAPACITY;
+        }
+    };
+
+    private static long hits;
+    private static long misses;
+
+    public static synchronized List<Cell> get(int size, int level) throws IOException {
+        long key = ((long) size << 32) | level;
+        List<Cell> cells = boards.get(key);
+        if (cells != null) {
+            hits++;
+            return cells;
+        }
+
+        misses++;
+        cells = List.copyOf(BoardImporter.importBoard(size, level));
+        boards.put(key, cells);
+        return cells;
+    }
+
+    public static synchronized long getHits() {
+        return hits;
+    }
+
+    public static synchronized long getMisses() {
+        return misses;
+    }
+}
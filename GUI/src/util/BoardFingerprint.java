@@ -0,0 +1,179 @@
+package util;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+
+import objects.Board;
+
+// Canonical 128-bit fingerprint of a board's region layout, same as the one in colored-queens
+// so both write and read the same solutions.cqs.
+// Regions are renumbered in order of first appearance (so the colors do not matter), then the smallest of the
+// 8 rotations/reflections is taken, so boards that are rotations, mirror images or recolorings of one another
+// get the same fingerprint. getTransform() tells which of the 8 maps the board onto that canonical form.
+public final class BoardFingerprint {
+    public static final int TRANSFORMS = 8;
+
+    private final int size;
+    private final long high;
+    private final long low;
+    private final int transform;
+    private final int[] canonical;
+
+    private BoardFingerprint(int size, long high, long low, int transform, int[] canonical) {
+        this.size = size;
+        this.high = high;
+        this.low = low;
+        this.transform = transform;
+        this.canonical = canonical;
+    }
+
+    public static BoardFingerprint of(Board board) {
+        int size = board.getSize();
+        int[] regions = new int[size * size];
+        int region = 0;
+        for (Map.Entry<String, List<int[]>> entry : board.getColorMap().entrySet()) {
+            for (int[] cell : entry.getValue()) {
+                regions[cell[0] * size + cell[1]] = region;
+            }
+            region++;
+        }
+        return of(size, regions);
+    }
+
+    // regions: one id per cell row by row, the ids themselves can be anything
+    public static BoardFingerprint of(int size, int[] regions) {
+        int[] best = null;
+        int bestTransform = 0;
+        int[] candidate = new int[regions.length];
+
+        for (int t = 0; t < TRANSFORMS; t++) {
+            for (int r = 0; r < size; r++) {
+                for (int c = 0; c < size; c++) {
+                    candidate[transform(t, size, r, c)] = regions[r * size + c];
+                }
+            }
+            relabel(candidate);
+
+            if (best == null || compare(candidate, best) < 0) {
+                best = candidate.clone();
+                bestTransform = t;
+            }
+        }
+
+        // two independent 64-bit hashes over size and canonical ids
+        long h1 = 0x9E3779B97F4A7C15L ^ size;
+        long h2 = 0xC2B2AE3D27D4EB4FL + size;
+        for (int id : best) {
+            h1 = Long.rotateLeft((h1 ^ id) * 0x9E3779B97F4A7C15L, 31);
+            h2 = (h2 + id) * 0xC2B2AE3D27D4EB4FL;
+            h2 ^= h2 >>> 29;
+        }
+
+        return new BoardFingerprint(size, mix(h1), mix(h2 ^ h1), bestTransform, best);
+    }
+
+    // renumbers the ids in place so they appear as 0, 1, 2, ... row by row
+    private static void relabel(int[] regions) {
+        int max = 0;
+        for (int id : regions) max = Math.max(max, id);
+
+        int[] mapping = new int[max + 1];
+        Arrays.fill(mapping, -1);
+        int next = 0;
+        for (int c = 0; c < regions.length; c++) {
+            int id = regions[c];
+            if (mapping[id] == -1) mapping[id] = next++;
+            regions[c] = mapping[id];
+        }
+    }
+
+    private static int compare(int[] a, int[] b) {
+        for (int i = 0; i < a.length; i++) {
+            if (a[i] != b[i]) return Integer.compare(a[i], b[i]);
+        }
+        return 0;
+    }
+
+    // splitmix64 finalizer
+    private static long mix(long h) {
+        h = (h ^ (h >>> 30)) * 0xBF58476D1CE4E5B9L;
+        h = (h ^ (h >>> 27)) * 0x94D049BB133111EBL;
+        return h ^ (h >>> 31);
+    }
+
+    // cell index (row * size + col) that (row, col) moves to under transform t:
+    // 0 identity, 1-3 rotation by 90/180/270 degrees clockwise, 4 mirror left-right, 5 mirror top-bottom,
+    // 6 transpose, 7 anti-transpose
+    public static int transform(int t, int size, int row, int col) {
+        int n = size - 1;
+        switch (t) {
+            case 0: return row * size + col;
+            case 1: return col * size + (n - row);
+            case 2: return (n - row) * size + (n - col);
+            case 3: return (n - col) * size + row;
+            case 4: return row * size + (n - col);
+            case 5: return (n - row) * size + col;
+            case 6: return col * size + row;
+            case 7: return (n - col) * size + (n - row);
+            default: throw new IllegalArgumentException("Unknown transform: " + t);
+        }
+    }
+
+    // the transform that undoes t
+    public static int inverse(int t) {
+        if (t == 1) return 3;
+        if (t == 3) return 1;
+        return t;
+    }
+
+    // cell index in the canonical form for a cell of this board
+    public int toCanonical(int row, int col) {
+        return transform(transform, size, row, col);
+    }
+
+    // cell index on this board for a cell of the canonical form
+    public int fromCanonical(int row, int col) {
+        return transform(inverse(transform), size, row, col);
+    }
+
+    public int getSize() {
+        return size;
+    }
+
+    public long getHigh() {
+        return high;
+    }
+
+    public long getLow() {
+        return low;
+    }
+
+    public int getTransform() {
+        return transform;
+    }
+
+    // canonical region id of a canonical cell
+    public int getCanonicalRegion(int row, int col) {
+        return canonical[row * size + col];
+    }
+
+    // same layout up to symmetry and colors, the hash alone is compared
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (!(o instanceof BoardFingerprint)) return false;
+        BoardFingerprint other = (BoardFingerprint) o;
+        return size == other.size && high == other.high && low == other.low;
+    }
+
+    @Override
+    public int hashCode() {
+        return (int) (low ^ (low >>> 32));
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%016x%016x", high, low);
+    }
+}
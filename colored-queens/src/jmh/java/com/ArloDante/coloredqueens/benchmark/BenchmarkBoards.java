@@ -0,0 +1,25 @@
+package com.ArloDante.coloredqueens.benchmark;
+
+import java.io.IOException;
+
+import com.ArloDante.coloredqueens.objects.Board;
+import com.ArloDante.coloredqueens.solver.backtracking.BacktrackingSolverAC3;
+import com.ArloDante.coloredqueens.util.BoardImporter;
+
+//Boards and reference solutions shared by the benchmarks
+public class BenchmarkBoards {
+
+    public static Board load(int size, int level) throws IOException {
+        return new Board(size, BoardImporter.importBoard(size, level));
+    }
+
+    //solution of the board as cell index per color, in the color order every solver uses
+    public static int[] referenceSolution(Board board) {
+        BacktrackingSolverAC3 solver = new BacktrackingSolverAC3(board);
+        solver.setVerbose(false);
+        if (!solver.solve()) {
+            throw new IllegalStateException("Board has no solution");
+        }
+        return solver.getSolution();
+    }
+}
@@ -0,0 +1,69 @@
+package com.ArloDante.coloredqueens.benchmark;
+
+import com.ArloDante.coloredqueens.objects.Board;
+import com.ArloDante.coloredqueens.solver.PSO.PSOSolver;
+import com.ArloDante.coloredqueens.solver.PSO.PSOSolverPermutation;
+import com.ArloDante.coloredqueens.solver.backtracking.BacktrackingSolver;
+import com.ArloDante.coloredqueens.solver.backtracking.BacktrackingSolverAC3;
+import com.ArloDante.coloredqueens.solver.backtracking.BacktrackingSolverBitset;
+
+//Every solver with the fixed settings used by the benchmarks and the regression gate
+public enum BenchmarkEngine {
+    BACKTRACKING,
+    BITSET,
+    AC3,
+    PSO,
+    PSO_PERMUTATION;
+
+    //PSO settings are fixed here so the numbers do not move when parameters.txt is tuned
+    static final int ITERATIONS = 1000;
+    static final int PARTICLES = 500;
+    static final int NEIGHBORHOODS = 10;
+    static final double C1 = 1.0;
+    static final double C2 = 1.0;
+    static final double INERTIA = 0.7;
+    static final double W1 = 1.0;
+    static final double W2 = 1.0;
+    static final int MAX_STAGNATION = 100;
+
+    //solves the board without console output and returns the node count:
+    //search steps for the backtracking solvers, fitness evaluations for the PSO solvers
+    public long solve(Board board, long seed) {
+        switch (this) {
+            case BACKTRACKING: {
+                BacktrackingSolver solver = new BacktrackingSolver(board);
+                solver.setVerbose(false);
+                solver.solve();
+                return solver.getSteps();
+            }
+            case BITSET: {
+                BacktrackingSolverBitset solver = new BacktrackingSolverBitset(board);
+                solver.setVerbose(false);
+                solver.solve();
+                return solver.getSteps();
+            }
+            case AC3: {
+                BacktrackingSolverAC3 solver = new BacktrackingSolverAC3(board);
+                solver.setVerbose(false);
+                solver.solve();
+                return solver.getSteps();
+            }
+            case PSO: {
+                PSOSolver solver = new PSOSolver(board, ITERATIONS, PARTICLES, C1, C2, NEIGHBORHOODS, INERTIA, W1, W2, MAX_STAGNATION);
+                solver.setVerbose(false);
+                solver.setSeed(seed);
+                solver.solve();
+                return solver.getEvaluations();
+            }
+            case PSO_PERMUTATION: {
+                PSOSolverPermutation solver = new PSOSolverPermutation(board, ITERATIONS, PARTICLES, C1, C2, NEIGHBORHOODS, INERTIA, W1, W2, MAX_STAGNATION);
+                solver.setVerbose(false);
+                solver.setSeed(seed);
+                solver.solve();
+                return solver.getEvaluations();
+            }
+            default:
+                throw new IllegalStateException("Unknown engine " + this);
+        }
+    }
+}
@@ -0,0 +1,304 @@
+package com.ArloDante.coloredqueens.benchmark;
+
+import java.io.*;
+import java.util.*;
+
+import com.ArloDante.coloredqueens.objects.Board;
+
+//Runs a fixed subset of the corpus through every engine and compares it with the stored baseline.
+//Node counts (search steps / fitness evaluations, fixed seeds) do not depend on the machine and must match exactly,
+//wall times only fail when the median or p95 of a (engine, size) group is more than the threshold slower.
+//Times are scaled by a fixed calibration workload so a baseline recorded on another machine stays usable,
+//on shared CI machines --nodes-only skips the time check.
+//
+//Usage: RegressionGate [--update] [--nodes-only] [--baseline=benchmarks/baseline.csv] [--threshold=0.5] [--runs=10]
+//                      [--engines=AC3,PSO,...]
+public class RegressionGate {
+    private static final int[] SIZES = {7, 8, 9, 10, 11, 12};
+    private static final int[] LEVELS = {1, 60, 120, 180, 240};
+    private static final int WARMUP_ROUNDS = 3;
+    private static final long SEED = 42;
+    private static final double MIN_SLACK_MS = 1.0; //differences below this are noise whatever the ratio
+    private static final long MIN_SAMPLE_NANOS = 50_000_000; //fast sweeps are repeated until one sample takes this long
+
+    private static final int CALIBRATION_RUNS = 7;
+
+    private File baselineFile;
+    private double threshold;
+    private boolean nodesOnly;
+    private double calibrationMs;
+    private double baselineCalibrationMs;
+    private long calibrationSink;
+    private int runs;
+    private List<BenchmarkEngine> engines;
+
+    public RegressionGate(File baselineFile, double threshold, int runs, List<BenchmarkEngine> engines) {
+        this.baselineFile = baselineFile;
+        this.threshold = threshold;
+        this.runs = runs;
+        this.engines = engines;
+    }
+
+    public void setNodesOnly(boolean nodesOnly) {
+        this.nodesOnly = nodesOnly;
+    }
+
+    public static void main(String[] args) throws Exception {
+        boolean update = false;
+        boolean nodesOnly = false;
+        File baselineFile = new File("benchmarks/baseline.csv");
+        double threshold = 0.5;
+        int runs = 10;
+        List<BenchmarkEngine> engines = Arrays.asList(BenchmarkEngine.values());
+
+        for (String arg : args) {
+            if (arg.equals("--update")) {
+                update = true;
+            } else if (arg.equals("--nodes-only")) {
+                nodesOnly = true;
+            } else if (arg.startsWith("--baseline=")) {
+                baselineFile = new File(arg.substring("--baseline=".length()));
+            } else if (arg.startsWith("--threshold=")) {
+                threshold = Double.parseDouble(arg.substring("--threshold=".length()));
+            } else if (arg.startsWith("--runs=")) {
+                runs = Integer.parseInt(arg.substring("--runs=".length()));
+            } else if (arg.startsWith("--engines=")) {
+                engines = new ArrayList<>();
+                for (String name : arg.substring("--engines=".length()).split(",")) {
+                    engines.add(BenchmarkEngine.valueOf(name.trim()));
+                }
+            } else {
+                throw new IllegalArgumentException("Unknown argument " + arg);
+            }
+        }
+
+        RegressionGate gate = new RegressionGate(baselineFile, threshold, runs, engines);
+        gate.setNodesOnly(nodesOnly);
+        gate.calibrate();
+        Map<String, Entry> current = gate.measure();
+
+        if (update) {
+            gate.writeBaseline(current);
+            System.out.println("Baseline written to " + baselineFile.getPath());
+            return;
+        }
+
+        if (!gate.compare(gate.readBaseline(), current)) {
+            System.exit(1);
+        }
+    }
+
+    //median/p95 of the time to solve all sampled levels once (one sample per round), nodes summed over the levels
+    static class Entry {
+        BenchmarkEngine engine;
+        int size;
+        double medianMs;
+        double p95Ms;
+        long nodes;
+
+        Entry(BenchmarkEngine engine, int size, double medianMs, double p95Ms, long nodes) {
+            this.engine = engine;
+            this.size = size;
+            this.medianMs = medianMs;
+            this.p95Ms = p95Ms;
+            this.nodes = nodes;
+        }
+    }
+
+    private static String key(BenchmarkEngine engine, int size) {
+        return engine.name() + "," + size;
+    }
+
+    Map<String, Entry> measure() throws IOException {
+        Map<String, Entry> entries = new LinkedHashMap<>();
+
+        Board[][] boards = new Board[SIZES.length][LEVELS.length];
+        for (int s = 0; s < SIZES.length; s++) {
+            for (int l = 0; l < LEVELS.length; l++) {
+                boards[s][l] = BenchmarkBoards.load(SIZES[s], LEVELS[l]);
+            }
+        }
+
+        for (BenchmarkEngine engine : engines) {
+            //warm the JIT up on the whole subset first, so the first sizes are not measured cold
+            for (int round = 0; round < WARMUP_ROUNDS; round++) {
+                for (int s = 0; s < SIZES.length; s++) {
+                    for (int l = 0; l < LEVELS.length; l++) {
+                        engine.solve(boards[s][l], SEED + LEVELS[l]);
+                    }
+                }
+            }
+
+            for (int s = 0; s < SIZES.length; s++) {
+                int size = SIZES[s];
+                List<Long> times = new ArrayList<>();
+                long[] boardNodes = new long[LEVELS.length];
+                Arrays.fill(boardNodes, -1);
+
+                //one sample is a sweep over all levels, single boards differ too much to share one median
+                int repeat = 0;
+                for (int round = 0; round < runs; round++) {
+                    boolean sizing = repeat == 0;
+                    if (sizing) repeat = 1;
+
+                    long start = System.nanoTime();
+                    for (int r = 0; r < repeat; r++) {
+                        for (int l = 0; l < LEVELS.length; l++) {
+                            long n = engine.solve(boards[s][l], SEED + LEVELS[l]);
+
+                            if (boardNodes[l] != -1 && n != boardNodes[l]) {
+                                System.err.println("Warning: " + engine + " " + size + "x" + size + " level " + LEVELS[l] + " is not deterministic");
+                            }
+                            boardNodes[l] = n;
+                        }
+                    }
+                    long elapsed = System.nanoTime() - start;
+
+                    //the first sweep only decides how often a sweep is repeated per sample, it is not recorded
+                    if (sizing) {
+                        repeat = (int) Math.min(1000, MIN_SAMPLE_NANOS / Math.max(1, elapsed) + 1);
+                        round--;
+                        continue;
+                    }
+                    times.add(elapsed / repeat);
+                }
+
+                long nodes = 0;
+                for (long n : boardNodes) nodes += n;
+
+                Collections.sort(times);
+                Entry entry = new Entry(engine, size, percentile(times, 50) / 1e6, percentile(times, 95) / 1e6, nodes);
+                entries.put(key(engine, size), entry);
+
+                System.out.printf("%-16s %2dx%-2d median = %9.3fms, p95 = %9.3fms, nodes = %d%n",
+                        engine, size, size, entry.medianMs, entry.p95Ms, entry.nodes);
+            }
+        }
+
+        return entries;
+    }
+
+    //median time of a fixed integer workload that does not use any solver code
+    void calibrate() {
+        List<Long> times = new ArrayList<>();
+        long sink = 0;
+
+        for (int run = 0; run < CALIBRATION_RUNS; run++) {
+            long start = System.nanoTime();
+            long[] table = new long[1 << 12];
+            long x = 88172645463325252L;
+            for (int i = 0; i < 20_000_000; i++) {
+                x ^= x << 13;
+                x ^= x >>> 7;
+                x ^= x << 17;
+                table[(int) (x & (table.length - 1))] += i;
+            }
+            sink += table[(int) (x & (table.length - 1))];
+            times.add(System.nanoTime() - start);
+        }
+
+        Collections.sort(times);
+        calibrationMs = percentile(times, 50) / 1e6;
+        calibrationSink = sink; //keeps the workload from being optimised away
+        System.out.printf("Calibration: %.3fms%n", calibrationMs);
+    }
+
+    //nearest rank on a sorted list
+    private static long percentile(List<Long> sorted, double p) {
+        int rank = (int) Math.ceil(p / 100.0 * sorted.size());
+        return sorted.get(Math.max(0, rank - 1));
+    }
+
+    void writeBaseline(Map<String, Entry> entries) throws IOException {
+        File dir = baselineFile.getAbsoluteFile().getParentFile();
+        if (!dir.exists()) dir.mkdirs();
+
+        try (PrintWriter writer = new PrintWriter(new FileWriter(baselineFile))) {
+            writer.println("# solver regression baseline, regenerate with ./gradlew benchmarkBaseline");
+            writer.printf(Locale.ROOT, "# calibrationMs=%.3f%n", calibrationMs);
+            writer.println("engine,size,medianMs,p95Ms,nodes");
+            for (Entry e : entries.values()) {
+                writer.printf(Locale.ROOT, "%s,%d,%.3f,%.3f,%d%n", e.engine.name(), e.size, e.medianMs, e.p95Ms, e.nodes);
+            }
+        }
+    }
+
+    Map<String, Entry> readBaseline() throws IOException {
+        Map<String, Entry> entries = new LinkedHashMap<>();
+
+        try (BufferedReader reader = new BufferedReader(new FileReader(baselineFile))) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                if (line.startsWith("# calibrationMs=")) {
+                    baselineCalibrationMs = Double.parseDouble(line.substring("# calibrationMs=".length()).trim());
+                    continue;
+                }
+                if (line.startsWith("#") || line.startsWith("engine,") || line.isBlank()) continue;
+
+                String[] parts = line.split(",");
+                BenchmarkEngine engine = BenchmarkEngine.valueOf(parts[0].trim());
+                int size = Integer.parseInt(parts[1].trim());
+                entries.put(key(engine, size), new Entry(engine, size,
+                        Double.parseDouble(parts[2].trim()), Double.parseDouble(parts[3].trim()), Long.parseLong(parts[4].trim())));
+            }
+        }
+
+        return entries;
+    }
+
+    //returns false if anything regressed
+    boolean compare(Map<String, Entry> baseline, Map<String, Entry> current) {
+        int failures = 0;
+
+        //how much faster this machine is than the one that recorded the baseline
+        double scale = (baselineCalibrationMs > 0 && calibrationMs > 0) ? baselineCalibrationMs / calibrationMs : 1.0;
+
+        System.out.printf("%nComparing with %s (time threshold %.0f%% on the median, %.0f%% on p95, machine scale %.2f)%n",
+                baselineFile.getPath(), threshold * 100, threshold * 200, scale);
+
+        for (Map.Entry<String, Entry> entry : current.entrySet()) {
+            Entry cur = entry.getValue();
+            Entry base = baseline.get(entry.getKey());
+            String name = String.format("%-16s %2dx%-2d", cur.engine, cur.size, cur.size);
+
+            if (base == null) {
+                System.out.println("  NEW   " + name + " not in the baseline");
+                continue;
+            }
+
+            //node counts are exact: with fixed seeds and boards any difference means the search changed,
+            //fewer nodes can just as well be a pruning bug that skips part of the search
+            if (cur.nodes != base.nodes) {
+                System.out.printf("  FAIL  %s nodes %d -> %d%n", name, base.nodes, cur.nodes);
+                failures++;
+            }
+
+            if (nodesOnly) continue;
+
+            //wall time is noisy, p95 gets twice the slack of the median
+            double median = cur.medianMs * scale;
+            double p95 = cur.p95Ms * scale;
+            if (slower(median, base.medianMs, threshold)) {
+                System.out.printf("  FAIL  %s median %.3fms -> %.3fms%n", name, base.medianMs, median);
+                failures++;
+            }
+            if (slower(p95, base.p95Ms, 2 * threshold)) {
+                System.out.printf("  FAIL  %s p95 %.3fms -> %.3fms%n", name, base.p95Ms, p95);
+                failures++;
+            }
+        }
+
+        if (failures == 0) {
+            System.out.println("No regressions.");
+            return true;
+        }
+
+        System.out.println(failures + " regression(s) found.");
+        System.out.println("If the search was changed on purpose, regenerate the baseline with --update (gradle benchmarkBaseline) and commit it.");
+        return false;
+    }
+
+    private static boolean slower(double current, double baseline, double threshold) {
+        return current > baseline * (1 + threshold) && current - baseline > MIN_SLACK_MS;
+    }
+}
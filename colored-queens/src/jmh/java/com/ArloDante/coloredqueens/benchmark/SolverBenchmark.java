@@ -0,0 +1,48 @@
+package com.ArloDante.coloredqueens.benchmark;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.*;
+
+import com.ArloDante.coloredqueens.objects.Board;
+import com.ArloDante.coloredqueens.objects.RegionOrder;
+
+//End-to-end solve of one board per invocation (solver construction included, console output off).
+//Boards are read from boards/ relative to the working directory, run it with ./gradlew jmh from colored-queens.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(2)
+public class SolverBenchmark {
+
+    private static final long SEED = 42;
+
+    @Param({"7", "8", "9", "10", "11", "12"})
+    public int size;
+
+    //fixed sample, one level from every batch of 50
+    @Param({"1", "60", "120", "180", "240"})
+    public int level;
+
+    @Param({"BACKTRACKING", "BITSET", "AC3", "PSO", "PSO_PERMUTATION"})
+    public BenchmarkEngine engine;
+
+    //other static orderings with -p regionOrder=SMALLEST_FIRST,LARGEST_FIRST
+    @Param({"FIRST_CELL"})
+    public String regionOrder;
+
+    private Board board;
+
+    @Setup(Level.Trial)
+    public void loadBoard() throws Exception {
+        board = BenchmarkBoards.load(size, level);
+        board.setRegionOrder(RegionOrder.named(regionOrder));
+    }
+
+    @Benchmark
+    public long solve() {
+        return engine.solve(board, SEED);
+    }
+}
@@ -0,0 +1,67 @@
+package com.ArloDante.coloredqueens.solver.PSO;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.*;
+
+import com.ArloDante.coloredqueens.benchmark.BenchmarkBoards;
+import com.ArloDante.coloredqueens.objects.Board;
+
+//calculateFitness and updateVelocity of PSOSolver on a swarm that already ran a number of iterations on a real board
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+public class PSOKernelBenchmark {
+
+    private static final int PARTICLES = 500;
+    private static final int NEIGHBORHOODS = 10;
+    private static final int WARM_ITERATIONS = 20; //iterations run before the state is captured
+    private static final int SAMPLE = 64;           //particles evaluated round robin by calculateFitness
+
+    @Param({"7", "10", "12"})
+    public int size;
+
+    @Param({"1", "120", "240"})
+    public int level;
+
+    private PSOSolver solver;
+    private Particle[] sample;
+    private int cursor;
+
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        Board board = BenchmarkBoards.load(size, level);
+
+        //maxStagnation and iterations do not matter, the solve loop is never entered
+        solver = new PSOSolver(board, 1, PARTICLES, 1.0, 1.0, NEIGHBORHOODS, 0.7, 1.0, 1.0, 1);
+        solver.setVerbose(false);
+        solver.setSeed(42);
+        solver.initialize();
+
+        for (int i = 0; i < WARM_ITERATIONS; i++) {
+            solver.updateVelocity();
+            solver.updateParticles();
+        }
+
+        sample = new Particle[SAMPLE];
+        for (int i = 0; i < SAMPLE; i++) {
+            sample[i] = solver.getParticle(i * (PARTICLES / SAMPLE));
+        }
+    }
+
+    @Benchmark
+    public double calculateFitness() {
+        Particle p = sample[cursor];
+        cursor = (cursor + 1) & (SAMPLE - 1);
+        return solver.calculateFitness(p);
+    }
+
+    //one velocity update of the whole swarm
+    @Benchmark
+    public void updateVelocity() {
+        solver.updateVelocity();
+    }
+}
@@ -0,0 +1,140 @@
+package com.ArloDante.coloredqueens.solver.backtracking;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.*;
+
+import com.ArloDante.coloredqueens.benchmark.BenchmarkBoards;
+import com.ArloDante.coloredqueens.objects.Board;
+
+//forwardCheck, revise and undoPrunes of the AC-3 solver on a mid-search state: colors are assigned (with propagation)
+//along a real solution and the next queen of that solution is being placed.
+//The kernels change the domains. forwardCheck and revise put them back inside the benchmark method (undoPrunes
+//of their own prunes, what the search does after a failed branch), so no per-invocation fixture sits in the timing;
+//revise runs on a state forward-checked once per trial.
+//undoPrunes alone can only run once per pruned state: it is a single-shot benchmark, every iteration
+//forward-checks once in an iteration-level setup and times one undo.
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+public class AC3KernelBenchmark {
+
+    @Param({"7", "10", "12"})
+    public int size;
+
+    @Param({"1", "120", "240"})
+    public int level;
+
+    BacktrackingSolverAC3 solver;
+    int nextColor;
+    int row;
+    int col;
+    int reviseFrom;
+    int reviseTo;
+
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        Board board = BenchmarkBoards.load(size, level);
+        int[] solution = BenchmarkBoards.referenceSolution(board);
+        List<String> colors = board.getColors();
+
+        //deeper states are often fully propagated already, take the deepest one (up to half of the colors)
+        //where the forward check of the next queen still prunes something
+        for (nextColor = solution.length / 2; nextColor >= 0; nextColor--) {
+            solver = new BacktrackingSolverAC3(board);
+            solver.setVerbose(false);
+            for (int i = 0; i < nextColor; i++) {
+                int[] placed = board.getColorMap().get(colors.get(i)).get(solution[i]);
+                solver.assign(i, solution[i], placed[0], placed[1]);
+            }
+
+            int[] cell = board.getColorMap().get(colors.get(nextColor)).get(solution[nextColor]);
+            row = cell[0];
+            col = cell[1];
+
+            int mark = solver.getPruneStackSize();
+            solver.forwardCheck(row, col, nextColor);
+            boolean pruned = solver.getPruneStackSize() > mark;
+
+            //pick the first arc that has something to prune right after the forward check, like propagateArcs sees it
+            reviseFrom = nextColor + 1;
+            reviseTo = Math.min(nextColor + 2, solution.length - 1);
+
+            search:
+            for (int i = nextColor + 1; i < solution.length; i++) {
+                for (int j = nextColor + 1; j < solution.length; j++) {
+                    if (i == j) continue;
+                    int arcMark = solver.getPruneStackSize();
+                    boolean revised = solver.revise(i, j);
+                    solver.undoPrunes(arcMark);
+                    if (revised) {
+                        reviseFrom = i;
+                        reviseTo = j;
+                        break search;
+                    }
+                }
+            }
+            solver.undoPrunes(mark);
+
+            if (pruned || nextColor == 0) break;
+        }
+    }
+
+    //state right after the forward check of the next queen, for a single undo
+    @State(Scope.Thread)
+    public static class ForwardChecked {
+        int mark;
+
+        @Setup(Level.Iteration)
+        public void forwardCheck(AC3KernelBenchmark b) {
+            mark = b.solver.getPruneStackSize();
+            b.solver.forwardCheck(b.row, b.col, b.nextColor);
+        }
+
+        @TearDown(Level.Iteration)
+        public void restore(AC3KernelBenchmark b) {
+            b.solver.undoPrunes(mark);
+        }
+    }
+
+    //the same state for the whole trial, revise restores its own prunes
+    @State(Scope.Thread)
+    public static class ForwardCheckedTrial {
+        @Setup(Level.Trial)
+        public void forwardCheck(AC3KernelBenchmark b) {
+            b.solver.forwardCheck(b.row, b.col, b.nextColor);
+        }
+    }
+
+    //forwardCheck plus the undo of its prunes
+    @Benchmark
+    public int forwardCheck() {
+        int mark = solver.getPruneStackSize();
+        solver.forwardCheck(row, col, nextColor);
+        int pruned = solver.getPruneStackSize() - mark;
+        solver.undoPrunes(mark);
+        return pruned;
+    }
+
+    //revise on the forward-checked state plus the undo of its prunes
+    @Benchmark
+    public boolean revise(ForwardCheckedTrial state) {
+        int mark = solver.getPruneStackSize();
+        boolean revised = solver.revise(reviseFrom, reviseTo);
+        solver.undoPrunes(mark);
+        return revised;
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.SingleShotTime)
+    @Warmup(iterations = 1000)
+    @Measurement(iterations = 10000)
+    public int undoPrunes(ForwardChecked state) {
+        solver.undoPrunes(state.mark);
+        return solver.getPruneStackSize();
+    }
+}
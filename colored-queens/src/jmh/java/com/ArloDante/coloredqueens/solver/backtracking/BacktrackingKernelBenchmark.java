@@ -0,0 +1,78 @@
+package com.ArloDante.coloredqueens.solver.backtracking;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.*;
+
+import com.ArloDante.coloredqueens.benchmark.BenchmarkBoards;
+import com.ArloDante.coloredqueens.objects.Board;
+
+//isValid of the plain and the bitset solver on a mid-search state: the first half of the colors hold
+//the queens of a real solution and every cell of the remaining colors is checked once per operation
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+public class BacktrackingKernelBenchmark {
+
+    @Param({"7", "10", "12"})
+    public int size;
+
+    @Param({"1", "120", "240"})
+    public int level;
+
+    private BacktrackingSolver plain;
+    private BacktrackingSolverBitset bitset;
+    private int[] probeRows;
+    private int[] probeCols;
+
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        Board board = BenchmarkBoards.load(size, level);
+        int[] solution = BenchmarkBoards.referenceSolution(board);
+        int depth = solution.length / 2;
+
+        plain = new BacktrackingSolver(board);
+        bitset = new BacktrackingSolverBitset(board);
+        List<String> colors = board.getColors();
+        for (int i = 0; i < depth; i++) {
+            int[] cell = board.getColorMap().get(colors.get(i)).get(solution[i]);
+            plain.placeQueen(i, solution[i], cell[0], cell[1]);
+            bitset.placeQueen(i, solution[i], cell[0], cell[1]);
+        }
+
+        List<int[]> probes = new ArrayList<>();
+        for (int i = depth; i < colors.size(); i++) {
+            probes.addAll(board.getColorMap().get(colors.get(i)));
+        }
+
+        probeRows = new int[probes.size()];
+        probeCols = new int[probes.size()];
+        for (int i = 0; i < probes.size(); i++) {
+            probeRows[i] = probes.get(i)[0];
+            probeCols[i] = probes.get(i)[1];
+        }
+    }
+
+    @Benchmark
+    public int plainIsValid() {
+        int valid = 0;
+        for (int i = 0; i < probeRows.length; i++) {
+            if (plain.isValid(probeRows[i], probeCols[i])) valid++;
+        }
+        return valid;
+    }
+
+    @Benchmark
+    public int bitsetIsValid() {
+        int valid = 0;
+        for (int i = 0; i < probeRows.length; i++) {
+            if (bitset.isValid(probeRows[i], probeCols[i])) valid++;
+        }
+        return valid;
+    }
+}
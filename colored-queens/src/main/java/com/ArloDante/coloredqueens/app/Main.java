@@ -3,13 +3,15 @@ package com.ArloDante.coloredqueens.app;
 import com.ArloDante.coloredqueens.objects.Board;
 import com.ArloDante.coloredqueens.objects.Cell;
 import com.ArloDante.coloredqueens.solver.PSO.PSOSolver;
+import com.ArloDante.coloredqueens.solver.PSO.PSOSolverPermutation;
+import com.ArloDante.coloredqueens.solver.PSO.PSOTelemetry;
 import com.ArloDante.coloredqueens.solver.backtracking.BacktrackingSolver;
 import com.ArloDante.coloredqueens.solver.backtracking.BacktrackingSolverAC3;
 import com.ArloDante.coloredqueens.solver.backtracking.BacktrackingSolverBitset;
 import com.ArloDante.coloredqueens.util.BoardImporter;
+import com.ArloDante.coloredqueens.util.PSOParameters;
 
-import java.io.BufferedReader;
-import java.io.FileReader;
+import java.io.File;
 import java.util.List;
 
 public class Main {
@@ -50,6 +52,12 @@ public class Main {
                 case 4:
                     System.out.println("Solving using Discrete PSO");
                     callPSO(board);
+                    break;
+
+                case 5:
+                    System.out.println("Solving using permutation-encoded Discrete PSO");
+                    callPSOPermutation(board);
+                    break;
 
                 default:
                     break;
@@ -98,59 +106,32 @@ public class Main {
     }
 
     private static void callPSO(Board board) throws Exception {
-        BufferedReader reader = new BufferedReader(new FileReader(System.getProperty("user.dir") + "/parameters.txt"));
-
-        int iterations = 0;
-        int particles = 0;
-        int neighborhoods = 0;
-        double c1 = 0;
-        double c2 = 0;
-        double inertia = 0;
-        double w1 = 0;
-        double w2 = 0;
-        int maxStagnation = 0;
-
-        String line;
-        while ((line = reader.readLine()) != null) {
-            String[] parts = line.split("=");
-            String key = parts[0].trim();
-            String value = parts[1].trim();
-
-            switch (key) {
-                case "iterations":
-                    iterations = Integer.parseInt(value);
-                    break;
-                case "particles":
-                    particles = Integer.parseInt(value);
-                    break;
-                case "neighborhoods":
-                    neighborhoods = Integer.parseInt(value);
-                    break;
-                case "c1":
-                    c1 = Double.parseDouble(value);
-                    break;
-                case "c2":
-                    c2 = Double.parseDouble(value);
-                    break;
-                case "inertia":
-                    inertia = Double.parseDouble(value);
-                    break;
-                case "w1":
-                    w1 = Double.parseDouble(value);
-                    break;
-                case "w2":
-                    w2 = Double.parseDouble(value);
-                    break;
-                case "maxStagnation":
-                    maxStagnation = Integer.parseInt(value);
-                break;
-            }
+        PSOParameters params = PSOParameters.read(new File(System.getProperty("user.dir") + "/parameters.txt"));
+
+        PSOSolver pso = new PSOSolver(board, params.iterations, params.particles, params.c1, params.c2,
+                params.neighborhoods, params.inertia, params.w1, params.w2, params.maxStagnation);
+        pso.setRepairSteps(params.repairSteps);
+        pso.setPrunedInitialization(params.prunedInit);
+        pso.setAdaptive(params.adaptive);
+
+        if (params.telemetry == null) {
+            pso.solve();
+            return;
+        }
+
+        try (PSOTelemetry telemetry = new PSOTelemetry(new File(params.telemetry))) {
+            pso.setTelemetry(telemetry);
+            pso.solve();
         }
+    }
 
-        reader.close();
+    private static void callPSOPermutation(Board board) throws Exception {
+        PSOParameters params = PSOParameters.read(new File(System.getProperty("user.dir") + "/parameters.txt"));
 
-        PSOSolver pso = new PSOSolver(board, iterations, particles, c1, c2, neighborhoods, inertia, w1, w2, maxStagnation);
+        PSOSolverPermutation pso = new PSOSolverPermutation(board, params.iterations, params.particles, params.c1, params.c2,
+                params.neighborhoods, params.inertia, params.w1, params.w2, params.maxStagnation);
 
         pso.solve();
+        pso.printSolution();
     }
 }
@@ -0,0 +1,183 @@
+package com.ArloDante.coloredqueens.experiment;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.StandardOpenOption;
+import java.util.*;
+
+import com.ArloDante.coloredqueens.solver.CountingInstrumentation;
+
+//Append-only log of finished tasks so an interrupted sweep can be resumed.
+//One line per task: param, size, level, engine, seed followed by the result itself, so the result files
+//can be written again without running the task. Lines are fsynced in batches, a crash loses at most
+//the last unsynced batch and a torn last line is cut off when the log is opened again.
+//The time is stored in nanoseconds together with the timed runs (comma separated) and the counters, so a resumed
+//run reports the same statistics as an uninterrupted one. Lines of the old format (12 fields, time in whole ms,
+//no samples or counters) are still read.
+public class Checkpoint implements AutoCloseable {
+    private static final int SYNC_EVERY = 64;
+    private static final long SYNC_INTERVAL = 5000; //ms
+    private static final int FIELDS = 14;
+    private static final int LEGACY_FIELDS = 12;
+
+    private FileChannel channel;
+    private Map<String, String[]> completed;
+
+    private StringBuilder pending;
+    private int pendingCount;
+    private long lastSync;
+
+    public Checkpoint(File file) throws IOException {
+        this.completed = new HashMap<>();
+        this.pending = new StringBuilder();
+
+        this.channel = FileChannel.open(file.toPath(),
+                StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+
+        load();
+        this.lastSync = System.currentTimeMillis();
+    }
+
+    private void load() throws IOException {
+        long size = channel.size();
+        ByteBuffer buffer = ByteBuffer.allocate((int) size);
+        while (buffer.hasRemaining() && channel.read(buffer, buffer.position()) > 0) { }
+
+        String content = new String(buffer.array(), 0, buffer.position(), StandardCharsets.UTF_8);
+
+        //everything after the last newline is a line that was cut off by a crash
+        int end = content.lastIndexOf('\n') + 1;
+        if (end < content.length()) {
+            channel.truncate(content.substring(0, end).getBytes(StandardCharsets.UTF_8).length);
+        }
+        channel.position(channel.size());
+
+        for (String line : content.substring(0, end).split("\n")) {
+            String[] fields = line.split("\t", -1);
+            if (fields.length != FIELDS && fields.length != LEGACY_FIELDS) continue;
+
+            completed.put(key(fields[0], fields[1], fields[2], fields[3], fields[4]), fields);
+        }
+    }
+
+    public int size() {
+        return completed.size();
+    }
+
+    public boolean isCompleted(ExperimentTask task) {
+        return completed.containsKey(key(task));
+    }
+
+    //rebuilds the result of a task that finished in an earlier run
+    public TaskResult restore(ExperimentTask task) {
+        String[] f = completed.get(key(task));
+
+        List<int[]> coords = new ArrayList<>();
+        if (!f[11].isEmpty()) {
+            for (String cell : f[11].split(";")) {
+                String[] rc = cell.split(",");
+                coords.add(new int[]{Integer.parseInt(rc[0]), Integer.parseInt(rc[1])});
+            }
+        }
+
+        if (f.length == LEGACY_FIELDS) {
+            return new TaskResult(task, coords, Long.parseLong(f[6]), Boolean.parseBoolean(f[7]),
+                    Double.parseDouble(f[8]), Integer.parseInt(f[9]), Integer.parseInt(f[10]));
+        }
+
+        TaskResult result = new TaskResult(task, coords, 0, Boolean.parseBoolean(f[7]),
+                Double.parseDouble(f[8]), Integer.parseInt(f[9]), Integer.parseInt(f[10]));
+        result.setTimeNanos(Long.parseLong(f[6]));
+        if (!f[12].isEmpty()) {
+            result.setSamples(Arrays.stream(f[12].split(",")).mapToLong(Long::parseLong).toArray());
+        }
+        if (!f[13].isEmpty()) {
+            long[] c = Arrays.stream(f[13].split(",")).mapToLong(Long::parseLong).toArray();
+            result.setCounters(new CountingInstrumentation(c[0], c[1], c[2], c[3], c[4], (int) c[5], c[6]));
+        }
+        return result;
+    }
+
+    //called from the collecting thread only, failed tasks are not recorded so they run again
+    public void record(TaskResult result) throws IOException {
+        if (result.isFailed()) return;
+
+        ExperimentTask task = result.getTask();
+        pending.append(task.getParamName()).append('\t')
+               .append(task.getSize()).append('\t')
+               .append(task.getLevel()).append('\t')
+               .append(task.getEngine().name()).append('\t')
+               .append(task.getSeed()).append('\t')
+               .append(task.getTrial()).append('\t')
+               .append(result.getTimeNanos()).append('\t')
+               .append(result.isValid()).append('\t')
+               .append(result.getFitness()).append('\t')
+               .append(result.getAdjacencyViolations()).append('\t')
+               .append(result.getAttackingViolations()).append('\t');
+
+        List<int[]> coords = result.getCoordinates();
+        for (int i = 0; i < coords.size(); i++) {
+            if (i > 0) pending.append(';');
+            pending.append(coords.get(i)[0]).append(',').append(coords.get(i)[1]);
+        }
+
+        pending.append('\t');
+        if (result.hasSamples()) {
+            long[] samples = result.getSamples();
+            for (int i = 0; i < samples.length; i++) {
+                if (i > 0) pending.append(',');
+                pending.append(samples[i]);
+            }
+        }
+
+        pending.append('\t');
+        CountingInstrumentation c = result.getCounters();
+        if (c != null) {
+            pending.append(c.getNodes()).append(',').append(c.getValidityChecks()).append(',')
+                   .append(c.getPrunes()).append(',').append(c.getRevises()).append(',')
+                   .append(c.getArcEnqueues()).append(',').append(c.getMaxTrailDepth()).append(',')
+                   .append(c.getFitnessEvaluations());
+        }
+        pending.append('\n');
+        pendingCount++;
+
+        if (pendingCount >= SYNC_EVERY || System.currentTimeMillis() - lastSync >= SYNC_INTERVAL) {
+            sync();
+        }
+    }
+
+    public void sync() throws IOException {
+        if (pendingCount > 0) {
+            ByteBuffer buffer = ByteBuffer.wrap(pending.toString().getBytes(StandardCharsets.UTF_8));
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+            channel.force(false);
+
+            pending.setLength(0);
+            pendingCount = 0;
+        }
+        lastSync = System.currentTimeMillis();
+    }
+
+    @Override
+    public void close() throws IOException {
+        try {
+            sync();
+        } finally {
+            channel.close();
+        }
+    }
+
+    private static String key(ExperimentTask task) {
+        return key(task.getParamName(), String.valueOf(task.getSize()), String.valueOf(task.getLevel()),
+                task.getEngine().name(), String.valueOf(task.getSeed()));
+    }
+
+    private static String key(String param, String size, String level, String engine, String seed) {
+        return param + '\t' + size + '\t' + level + '\t' + engine + '\t' + seed;
+    }
+}
@@ -0,0 +1,23 @@
+package com.ArloDante.coloredqueens.experiment;
+
+//Solver yang bisa dijalankan oleh ExperimentRunner
+public enum Engine {
+    BACKTRACKING("Backtracking"),
+    PSO("PSO"),
+    PSO_PERMUTATION("PSO-Permutation");
+
+    private final String label;
+
+    Engine(String label) {
+        this.label = label;
+    }
+
+    //name used in the result files
+    public String getLabel() {
+        return label;
+    }
+
+    public boolean usesParameters() {
+        return this != BACKTRACKING;
+    }
+}
@@ -0,0 +1,666 @@
+package com.ArloDante.coloredqueens.experiment;
+
+import java.io.File;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.util.*;
+import java.util.concurrent.*;
+
+import com.ArloDante.coloredqueens.jfr.ResultWriteEvent;
+import com.ArloDante.coloredqueens.objects.RegionOrder;
+import com.ArloDante.coloredqueens.solver.CountingInstrumentation;
+import com.ArloDante.coloredqueens.util.BoardCorpus;
+import com.ArloDante.coloredqueens.util.BoardRepository;
+import com.ArloDante.coloredqueens.util.CorpusLoader;
+import com.ArloDante.coloredqueens.util.PSOParameters;
+import com.ArloDante.coloredqueens.util.SolutionStore;
+
+//Runs every (param set, size, level, engine, trial) as its own task on a work-stealing pool.
+//Tasks are submitted longest first using the timings of earlier runs, so one slow board no longer
+//holds back a whole batch and the large boards do not end up running alone at the end.
+//Finished tasks are kept in results/checkpoint.log, a restarted run only does what is still missing.
+//Besides the text files every result also goes to results/results.csv (.ndjson, .bin) for analysis tools.
+//With --warmup/--measure every task is repeated and timed with nanoTime, the single runs are written to
+//results/timings.csv (use --threads=1 there, parallel tasks disturb each other's timings).
+//With --counters the solvers count nodes, checks, prunes etc. into results/counters.csv.
+//The whole corpus is loaded and validated in parallel at startup, boards that fail validation get no tasks.
+//Boards are parsed once and kept for the other param sets (--cache=N boards, 0 to re-read every time),
+//the cache is filled from that corpus.
+//Solvers take the regions in --region-order (FIRST_CELL by default, see RegionOrder).
+//With --solutions every valid solution is also kept in solutions.cqs (see SolutionStore) for the GUI and later runs.
+//Under -XX:StartFlightRecording every phase (import, board build, search, propagation, PSO iteration,
+//result writing) is recorded as a coloredqueens.* JFR event with size, level, engine and counters.
+//
+//Usage: ExperimentRunner [--threads=N] [--trials=N] [--engines=BACKTRACKING,PSO,...] [--seed=N] [--fresh]
+//                        [--output=csv,ndjson,binary] [--warmup=N] [--measure=N] [--counters] [--cache=N]
+//                        [--solutions] [--region-order=FIRST_CELL|SMALLEST_FIRST|LARGEST_FIRST] [paramName ...]
+public class ExperimentRunner {
+    static final int BATCH_SIZE = 50;
+    static final int BATCHES = 5;
+    static final String CHECKPOINT_FILE = "checkpoint.log";
+    static final String RESULTS_NAME = "results";
+    static final String TIMINGS_FILE = "timings.csv";
+    static final String COUNTERS_FILE = "counters.csv";
+
+    private static final int[] SIZES = {7, 8, 9, 10, 11, 12};
+    private static final int[] LARGE_SIZES = {20, 30};
+
+    private static final Comparator<TaskResult> RESULT_ORDER = Comparator
+            .comparing((TaskResult r) -> r.getTask().getParamName())
+            .thenComparingInt(r -> r.getTask().getSize())
+            .thenComparingInt(r -> r.getTask().getLevel())
+            .thenComparing(r -> r.getTask().getEngine())
+            .thenComparingInt(r -> r.getTask().getTrial());
+
+    private File paramsDir;
+    private File resultsRoot;
+    private List<Engine> engines;
+    private int trials;
+    private int threads;
+    private long baseSeed;
+    private boolean fresh;
+    private int warmupRuns;
+    private int timedRuns = 1;
+    private boolean counting;
+    private int cacheSize = SIZES.length * BATCH_SIZE * BATCHES + LARGE_SIZES.length; //every board
+    private BoardRepository repository;
+    private BoardCorpus validated; //rejected boards only (BoardCorpus.rejectedOnly)
+    private boolean storingSolutions;
+    private RegionOrder regionOrder = RegionOrder.FIRST_CELL;
+    private SolutionStore solutions;
+    private Set<ResultSink.Format> outputFormats = EnumSet.of(ResultSink.Format.CSV);
+
+    public ExperimentRunner(File paramsDir, File resultsRoot, List<Engine> engines, int trials, int threads) {
+        this.paramsDir = paramsDir;
+        this.resultsRoot = resultsRoot;
+        this.engines = engines;
+        this.trials = trials;
+        this.threads = threads;
+    }
+
+    public void setBaseSeed(long baseSeed) {
+        this.baseSeed = baseSeed;
+    }
+
+    //ignore the checkpoint of an earlier run and start over
+    public void setFresh(boolean fresh) {
+        this.fresh = fresh;
+    }
+
+    public void setOutputFormats(Set<ResultSink.Format> outputFormats) {
+        this.outputFormats = outputFormats;
+    }
+
+    //warmupRuns untimed and timedRuns timed solves per task instead of a single cold one
+    public void setMeasurement(int warmupRuns, int timedRuns) {
+        this.warmupRuns = warmupRuns;
+        this.timedRuns = timedRuns;
+    }
+
+    public void setCounting(boolean counting) {
+        this.counting = counting;
+    }
+
+    public void setCacheSize(int cacheSize) {
+        this.cacheSize = cacheSize;
+    }
+
+    public void setStoringSolutions(boolean storingSolutions) {
+        this.storingSolutions = storingSolutions;
+    }
+
+    public void setRegionOrder(RegionOrder regionOrder) {
+        this.regionOrder = regionOrder;
+    }
+
+    private boolean isMeasuring() {
+        return warmupRuns > 0 || timedRuns > 1;
+    }
+
+    public static void main(String[] args) throws Exception {
+        int threads = Runtime.getRuntime().availableProcessors();
+        int trials = 1;
+        long seed = 0;
+        boolean fresh = false;
+        int warmup = 0;
+        int measure = 1;
+        boolean counters = false;
+        boolean storeSolutions = false;
+        RegionOrder regionOrder = RegionOrder.FIRST_CELL;
+        int cacheSize = -1;
+        Set<ResultSink.Format> outputFormats = EnumSet.of(ResultSink.Format.CSV);
+        List<Engine> engines = List.of(Engine.BACKTRACKING, Engine.PSO);
+        List<String> paramFilter = new ArrayList<>();
+
+        for (String arg : args) {
+            if (arg.startsWith("--threads=")) {
+                threads = Integer.parseInt(arg.substring("--threads=".length()));
+            } else if (arg.startsWith("--trials=")) {
+                trials = Integer.parseInt(arg.substring("--trials=".length()));
+            } else if (arg.startsWith("--seed=")) {
+                seed = Long.parseLong(arg.substring("--seed=".length()));
+            } else if (arg.equals("--fresh")) {
+                fresh = true;
+            } else if (arg.startsWith("--cache=")) {
+                cacheSize = Integer.parseInt(arg.substring("--cache=".length()));
+            } else if (arg.equals("--counters")) {
+                counters = true;
+            } else if (arg.equals("--solutions")) {
+                storeSolutions = true;
+            } else if (arg.startsWith("--region-order=")) {
+                regionOrder = RegionOrder.named(arg.substring("--region-order=".length()));
+            } else if (arg.startsWith("--warmup=")) {
+                warmup = Integer.parseInt(arg.substring("--warmup=".length()));
+            } else if (arg.startsWith("--measure=")) {
+                measure = Math.max(1, Integer.parseInt(arg.substring("--measure=".length())));
+            } else if (arg.startsWith("--output=")) {
+                outputFormats = EnumSet.noneOf(ResultSink.Format.class);
+                for (String name : arg.substring("--output=".length()).split(",")) {
+                    if (name.isBlank() || name.equalsIgnoreCase("none")) continue;
+                    outputFormats.add(ResultSink.Format.valueOf(name.trim().toUpperCase()));
+                }
+            } else if (arg.startsWith("--engines=")) {
+                engines = new ArrayList<>();
+                for (String name : arg.substring("--engines=".length()).split(",")) {
+                    engines.add(Engine.valueOf(name.trim()));
+                }
+            } else {
+                paramFilter.add(arg);
+            }
+        }
+
+        String root = System.getProperty("user.dir");
+        ExperimentRunner runner = new ExperimentRunner(new File(root, "params"), new File(root, "results"), engines, trials, threads);
+        runner.setBaseSeed(seed);
+        runner.setFresh(fresh);
+        runner.setOutputFormats(outputFormats);
+        runner.setMeasurement(warmup, measure);
+        runner.setCounting(counters);
+        runner.setStoringSolutions(storeSolutions);
+        runner.setRegionOrder(regionOrder);
+        if (cacheSize >= 0) runner.setCacheSize(cacheSize);
+        runner.run(paramFilter);
+    }
+
+    public void run(List<String> paramFilter) throws Exception {
+        Map<String, PSOParameters> paramSets = loadParameters(paramFilter);
+        if (paramSets.isEmpty()) {
+            System.err.println("No parameter files found!");
+            return;
+        }
+
+        if (!resultsRoot.exists()) resultsRoot.mkdirs();
+
+        repository = (cacheSize > 0) ? BoardRepository.open(cacheSize) : null;
+        validateBoards();
+        solutions = storingSolutions ? SolutionStore.open() : null;
+        try {
+            runTasks(paramSets);
+        } finally {
+            if (solutions != null) {
+                System.out.println("Solution store: " + solutions.size() + " boards");
+                solutions.close();
+                solutions = null;
+            }
+            if (repository != null) {
+                System.out.println("Board cache: " + repository);
+                repository.close();
+                repository = null;
+            }
+        }
+    }
+
+    //always runs, also with --cache=0. The runner keeps only the validation result, the boards stay in the cache
+    private void validateBoards() throws IOException {
+        long start = System.currentTimeMillis();
+        BoardCorpus corpus = CorpusLoader.open();
+        if (repository != null) repository.preload(corpus);
+        validated = corpus.rejectedOnly();
+
+        System.out.println("Loaded " + corpus.size() + " boards in " + (System.currentTimeMillis() - start) + "ms");
+        for (Map.Entry<String, String> rejected : corpus.getRejected().entrySet()) {
+            System.err.println("Invalid board " + rejected.getKey() + ": " + rejected.getValue() + " (skipped)");
+        }
+        for (List<String> duplicates : corpus.getDuplicates()) {
+            System.out.println("Same board up to symmetry/colors: " + String.join(", ", duplicates));
+        }
+    }
+
+    private void runTasks(Map<String, PSOParameters> paramSets) throws Exception {
+        List<ExperimentTask> allTasks = createTasks(paramSets);
+        List<TaskResult> results = new ArrayList<>(allTasks.size());
+        StatsAggregator stats = new StatsAggregator();
+
+        File checkpointFile = new File(resultsRoot, CHECKPOINT_FILE);
+        if (fresh) checkpointFile.delete();
+
+        //the structured files are rewritten every run, restored results go in first so they stay complete
+        try (Checkpoint checkpoint = new Checkpoint(checkpointFile);
+             ResultSink sink = new ResultSink(resultsRoot, RESULTS_NAME, outputFormats)) {
+            List<ExperimentTask> tasks = new ArrayList<>();
+            for (ExperimentTask task : allTasks) {
+                if (checkpoint.isCompleted(task)) {
+                    TaskResult restored = checkpoint.restore(task);
+                    results.add(restored);
+                    sink.submit(restored);
+                    stats.record(restored);
+                } else {
+                    tasks.add(task);
+                }
+            }
+
+            if (!results.isEmpty()) {
+                System.out.println("Resuming: " + results.size() + " of " + allTasks.size() + " tasks already done");
+            }
+
+            //longest processing time first
+            TimingHistory history = TimingHistory.load(resultsRoot);
+            for (ExperimentTask task : tasks) {
+                task.setEstimatedTime(history.estimate(task));
+            }
+            tasks.sort(Comparator.comparingLong(ExperimentTask::getEstimatedTime).reversed());
+
+            System.out.println("Running " + tasks.size() + " tasks for " + paramSets.size() + " param sets on " + threads + " threads");
+
+            ExecutorService pool = Executors.newWorkStealingPool(threads);
+            CompletionService<TaskResult> completion = new ExecutorCompletionService<>(pool);
+            for (ExperimentTask task : tasks) {
+                completion.submit(() -> {
+                    TaskResult result = task.call();
+                    sink.submit(result);
+                    stats.record(result);
+                    return result;
+                });
+            }
+
+            long start = System.currentTimeMillis();
+            int progressStep = Math.max(1, tasks.size() / 100);
+
+            try {
+                for (int i = 1; i <= tasks.size(); i++) {
+                    TaskResult result = completion.take().get();
+                    results.add(result);
+                    checkpoint.record(result);
+
+                    if (i % progressStep == 0 || i == tasks.size()) {
+                        System.out.printf("Completed %d/%d tasks (%ds)%n", i, tasks.size(), (System.currentTimeMillis() - start) / 1000);
+                    }
+                }
+            } finally {
+                pool.shutdownNow();
+            }
+        }
+
+        Map<StatsAggregator.GroupKey, StatsAggregator.GroupStats> groups = stats.merge();
+        for (String paramName : paramSets.keySet()) {
+            writeResults(paramName, results, groups);
+        }
+        writeStats(new File(resultsRoot, "stats.txt"), groups);
+        if (isMeasuring()) writeTimings(new File(resultsRoot, TIMINGS_FILE), results);
+        if (counting) writeCounters(new File(resultsRoot, COUNTERS_FILE), results);
+
+        System.out.println("\nAll experiments completed!");
+    }
+
+    private Map<String, PSOParameters> loadParameters(List<String> paramFilter) throws IOException {
+        File[] paramFiles = paramsDir.listFiles((dir, name) -> name.endsWith(".txt"));
+        Map<String, PSOParameters> paramSets = new TreeMap<>();
+        if (paramFiles == null) return paramSets;
+
+        for (File paramFile : paramFiles) {
+            String paramName = paramFile.getName().replace(".txt", "");
+            if (!paramFilter.isEmpty() && !paramFilter.contains(paramName)) continue;
+
+            paramSets.put(paramName, PSOParameters.read(paramFile));
+        }
+        return paramSets;
+    }
+
+    private List<ExperimentTask> createTasks(Map<String, PSOParameters> paramSets) {
+        List<ExperimentTask> tasks = new ArrayList<>();
+
+        for (Map.Entry<String, PSOParameters> entry : paramSets.entrySet()) {
+            for (int size : SIZES) {
+                for (int level = 1; level <= BATCH_SIZE * BATCHES; level++) {
+                    addTasks(tasks, entry.getKey(), entry.getValue(), size, level, true);
+                }
+            }
+
+            //only one board each, and like before only the PSO engines run on them
+            for (int size : LARGE_SIZES) {
+                addTasks(tasks, entry.getKey(), entry.getValue(), size, 1, false);
+            }
+        }
+
+        return tasks;
+    }
+
+    private void addTasks(List<ExperimentTask> tasks, String paramName, PSOParameters params, int size, int level, boolean withBacktracking) {
+        //boards that failed validation never reach the solvers (already reported by validateBoards)
+        if (validated.isRejected(size, level)) return;
+
+        for (Engine engine : engines) {
+            if (engine == Engine.BACKTRACKING && !withBacktracking) continue;
+
+            for (int trial = 1; trial <= trials; trial++) {
+                long seed = ExperimentTask.seedFor(baseSeed, size, level, trial);
+                ExperimentTask task = new ExperimentTask(paramName, params, size, level, engine, trial, seed);
+                task.setMeasurement(warmupRuns, timedRuns);
+                task.setCounting(counting);
+                task.setRepository(repository);
+                task.setSolutionStore(solutions);
+                task.setRegionOrder(regionOrder);
+                tasks.add(task);
+            }
+        }
+    }
+
+    // ================= OUTPUT =================
+    private void writeResults(String paramName, List<TaskResult> allResults,
+                              Map<StatsAggregator.GroupKey, StatsAggregator.GroupStats> groups) {
+        File paramDir = new File(resultsRoot, paramName);
+        if (!paramDir.exists()) paramDir.mkdirs();
+
+        //group by output file, ordered by level, engine and trial
+        Map<String, List<TaskResult>> files = new TreeMap<>();
+        for (TaskResult result : allResults) {
+            ExperimentTask task = result.getTask();
+            if (!task.getParamName().equals(paramName)) continue;
+
+            files.computeIfAbsent(outputFileName(task), k -> new ArrayList<>()).add(result);
+        }
+
+        Comparator<TaskResult> order = Comparator
+                .comparingInt((TaskResult r) -> r.getTask().getLevel())
+                .thenComparing(r -> r.getTask().getEngine())
+                .thenComparingInt(r -> r.getTask().getTrial());
+
+        for (Map.Entry<String, List<TaskResult>> entry : files.entrySet()) {
+            List<TaskResult> results = entry.getValue();
+            results.sort(order);
+            writeResultFile(new File(paramDir, entry.getKey()), results);
+        }
+
+        for (Engine engine : engines) {
+            if (!engine.usesParameters()) continue;
+
+            SummaryStats stats = new SummaryStats(paramName, engine, groups);
+            for (TaskResult result : allResults) {
+                if (result.getTask().getParamName().equals(paramName)) {
+                    stats.add(result);
+                }
+            }
+
+            String suffix = (engine == Engine.PSO) ? "" : "_" + engine.getLabel();
+            File summaryFile = new File(paramDir, "summary_" + paramName + suffix + ".txt");
+            generateSummary(summaryFile, stats);
+            System.out.println("Summary saved to " + summaryFile.getPath());
+        }
+    }
+
+    private String outputFileName(ExperimentTask task) {
+        int size = task.getSize();
+        if (isLargeSize(size)) {
+            return "results" + size + "x" + size + "_" + task.getParamName() + ".txt";
+        }
+        return "results" + size + "x" + size + "_" + task.getParamName() + "_batch" + task.getBatch() + ".txt";
+    }
+
+    private static boolean isLargeSize(int size) {
+        for (int large : LARGE_SIZES) {
+            if (large == size) return true;
+        }
+        return false;
+    }
+
+    private void writeResultFile(File file, List<TaskResult> results) {
+        ExperimentTask first = results.get(0).getTask();
+        int size = first.getSize();
+
+        ResultWriteEvent event = new ResultWriteEvent();
+        event.begin();
+
+        try (PrintWriter writer = new PrintWriter(new FileWriter(file))) {
+            if (isLargeSize(size)) {
+                writer.println("======= " + size + "x" + size + " =======");
+            } else {
+                writer.println("======= " + size + "x" + size + " | Batch " + first.getBatch() + " =======");
+            }
+
+            int level = -1;
+            for (TaskResult result : results) {
+                ExperimentTask task = result.getTask();
+
+                if (task.getLevel() != level) {
+                    if (level != -1) writer.println();
+                    level = task.getLevel();
+                    writer.println("Level " + level + ":");
+                }
+
+                writer.println(formatResult(result));
+            }
+            writer.println();
+
+        } catch (IOException e) {
+            System.err.println("Error writing file: " + e.getMessage());
+        }
+
+        event.end();
+        if (event.shouldCommit()) {
+            event.set(file.getPath(), results.size());
+            event.commit();
+        }
+    }
+
+    static String formatResult(TaskResult result) {
+        ExperimentTask task = result.getTask();
+        String label = task.getEngine().getLabel();
+        if (task.getTrial() > 1) {
+            label += " (trial " + task.getTrial() + ")";
+        }
+
+        if (result.isFailed()) {
+            return "  " + label + ": Error: " + result.getError();
+        }
+
+        StringBuilder sb = new StringBuilder("  ").append(label).append(": ");
+        sb.append(formatCoordinates(result.getCoordinates()));
+        sb.append(", ").append(result.getTime()).append("ms, ");
+
+        if (result.isValid()) {
+            sb.append("valid");
+        } else if (task.getEngine() == Engine.BACKTRACKING) {
+            sb.append("no solution");
+        } else {
+            sb.append("not valid, fitness = ").append(result.getFitness())
+              .append(" (adj = ").append(result.getAdjacencyViolations())
+              .append(", att = ").append(result.getAttackingViolations()).append(")");
+        }
+
+        if (result.hasSamples()) {
+            sb.append(String.format(Locale.ROOT, ", min = %.3fms, median = %.3fms (%d runs)",
+                    result.getMinNanos() / 1e6, result.getMedianNanos() / 1e6, result.getSamples().length));
+        }
+
+        return sb.toString();
+    }
+
+    private static String formatCoordinates(List<int[]> coords) {
+        StringBuilder sb = new StringBuilder("{");
+        for (int i = 0; i < coords.size(); i++) {
+            int[] c = coords.get(i);
+            sb.append("[").append(c[0]).append(",").append(c[1]).append("]");
+            if (i < coords.size() - 1) sb.append(", ");
+        }
+        sb.append("}");
+        return sb.toString();
+    }
+
+    // ================= SUMMARY =================
+    private void generateSummary(File outputFile, SummaryStats stats) {
+        try (PrintWriter writer = new PrintWriter(new FileWriter(outputFile))) {
+
+            writer.println("=== SUMMARY ===\n");
+
+            for (int size : stats.getSizes()) {
+                writer.println(size + "x" + size + ":");
+
+                List<SummaryStats.BatchStats> batches = stats.getBatches(size);
+
+                double totalValid = 0;
+                double totalRuns = 0;
+                long totalTime = 0;
+                long totalBTTime = 0;
+                int totalBTRuns = 0;
+
+                for (int i = 0; i < batches.size(); i++) {
+                    SummaryStats.BatchStats b = batches.get(i);
+
+                    double rate = b.psoTotal > 0 ? (b.psoValid * 100.0 / b.psoTotal) : 0;
+
+                    writer.printf("  Batch %d: %.2f%%, PSO Avg = %dms, BT Avg = %s%n",
+                            (i + 1),
+                            rate,
+                            b.getPSOAvg(),
+                            b.btTotal > 0 ? b.getBTAvg() + "ms" : "N/A"
+                    );
+
+                    totalValid += b.psoValid;
+                    totalRuns += b.psoTotal;
+                    totalTime += b.psoTime;
+
+                    totalBTTime += b.btTime;
+                    totalBTRuns += b.btTotal;
+                }
+
+                double meanBatchRate = batches.stream()
+                        .mapToDouble(b -> b.psoTotal > 0 ? (b.psoValid * 1.0 / b.psoTotal) : 0)
+                        .average().orElse(0) * 100;
+
+                long meanBatchTime = (long) batches.stream()
+                        .mapToLong(SummaryStats.BatchStats::getPSOAvg)
+                        .average().orElse(0);
+
+                double overallRate = totalRuns > 0 ? (totalValid * 100.0 / totalRuns) : 0;
+                long overallTime = totalRuns > 0 ? totalTime / (long) totalRuns : 0;
+                long overallBTTime = totalBTRuns > 0 ? totalBTTime / totalBTRuns : 0;
+
+                writer.printf("  Mean (batch avg): %.2f%%, %dms%n", meanBatchRate, meanBatchTime);
+                writer.printf("  Overall (all runs): %.2f%%, %dms, BT Avg = %s%n",
+                        overallRate,
+                        overallTime,
+                        totalBTRuns > 0 ? overallBTTime + "ms" : "N/A"
+                );
+
+                //the averages hide the slow levels, report the tail as well
+                StatsAggregator.GroupStats pso = stats.getGroup(size, stats.getPSOEngine());
+                if (pso != null) {
+                    double[] ci = pso.getSuccessInterval();
+                    writer.printf("  Success 95%% CI: [%.2f%%, %.2f%%]%n", ci[0] * 100, ci[1] * 100);
+                    writer.println("  PSO " + formatTail(pso));
+                }
+
+                StatsAggregator.GroupStats bt = stats.getGroup(size, Engine.BACKTRACKING);
+                if (bt != null) {
+                    writer.println("  BT " + formatTail(bt));
+                }
+                writer.println();
+            }
+
+        } catch (IOException e) {
+            System.err.println(e.getMessage());
+        }
+    }
+
+    private static String formatTail(StatsAggregator.GroupStats g) {
+        LatencyHistogram h = g.getHistogram();
+        return String.format("p50 = %.3fms, p95 = %.3fms, p99 = %.3fms, max = %.3fms (mean = %.3fms, sd = %.3fms)",
+                millis(h.getPercentile(50)), millis(h.getPercentile(95)), millis(h.getPercentile(99)), millis(h.getMax()),
+                millis(g.getTime().getMean()), millis(g.getTime().getStdDev()));
+    }
+
+    //the aggregator records nanoseconds
+    private static double millis(double nanos) {
+        return nanos / 1e6;
+    }
+
+    //one line per measured task with every timed run, restored results have no single runs and are left out
+    private void writeTimings(File outputFile, List<TaskResult> results) {
+        List<TaskResult> measured = new ArrayList<>();
+        for (TaskResult result : results) {
+            if (result.hasSamples()) measured.add(result);
+        }
+        measured.sort(RESULT_ORDER);
+
+        try (PrintWriter writer = new PrintWriter(new FileWriter(outputFile))) {
+            writer.println("param,size,level,engine,trial,seed,warmup,runs,minNs,medianNs,samplesNs");
+
+            for (TaskResult result : measured) {
+                ExperimentTask task = result.getTask();
+                StringJoiner samples = new StringJoiner(";");
+                for (long sample : result.getSamples()) samples.add(Long.toString(sample));
+
+                writer.println(task.getParamName() + "," + task.getSize() + "," + task.getLevel() + "," + task.getEngine()
+                        + "," + task.getTrial() + "," + task.getSeed() + "," + warmupRuns + "," + result.getSamples().length
+                        + "," + result.getMinNanos() + "," + result.getMedianNanos() + "," + samples);
+            }
+
+            System.out.println("Timings saved to " + outputFile.getPath());
+        } catch (IOException e) {
+            System.err.println(e.getMessage());
+        }
+    }
+
+    //same metrics for every engine, restored results were not counted and are left out
+    private void writeCounters(File outputFile, List<TaskResult> results) {
+        List<TaskResult> counted = new ArrayList<>();
+        for (TaskResult result : results) {
+            if (result.getCounters() != null) counted.add(result);
+        }
+        counted.sort(RESULT_ORDER);
+
+        try (PrintWriter writer = new PrintWriter(new FileWriter(outputFile))) {
+            writer.println("param,size,level,engine,trial,nodes,validityChecks,prunes,revises,arcEnqueues,maxTrailDepth,fitnessEvaluations");
+
+            for (TaskResult result : counted) {
+                ExperimentTask task = result.getTask();
+                CountingInstrumentation c = result.getCounters();
+
+                writer.println(task.getParamName() + "," + task.getSize() + "," + task.getLevel() + "," + task.getEngine()
+                        + "," + task.getTrial() + "," + c.getNodes() + "," + c.getValidityChecks() + "," + c.getPrunes()
+                        + "," + c.getRevises() + "," + c.getArcEnqueues() + "," + c.getMaxTrailDepth()
+                        + "," + c.getFitnessEvaluations());
+            }
+
+            System.out.println("Counters saved to " + outputFile.getPath());
+        } catch (IOException e) {
+            System.err.println(e.getMessage());
+        }
+    }
+
+    //one line per (param set, size, engine) for the whole run
+    private void writeStats(File outputFile, Map<StatsAggregator.GroupKey, StatsAggregator.GroupStats> groups) {
+        try (PrintWriter writer = new PrintWriter(new FileWriter(outputFile))) {
+            writer.printf("%-16s %5s %-16s %6s %8s %17s %10s %10s %10s %10s %10s %10s%n",
+                    "param", "size", "engine", "runs", "success", "95% CI", "mean", "sd", "p50", "p95", "p99", "max");
+
+            for (Map.Entry<StatsAggregator.GroupKey, StatsAggregator.GroupStats> entry : groups.entrySet()) {
+                StatsAggregator.GroupKey key = entry.getKey();
+                StatsAggregator.GroupStats g = entry.getValue();
+                LatencyHistogram h = g.getHistogram();
+                double[] ci = g.getSuccessInterval();
+
+                writer.printf("%-16s %5d %-16s %6d %7.2f%% %7.2f%%-%6.2f%% %8.3fms %8.3fms %8.3fms %8.3fms %8.3fms %8.3fms%n",
+                        key.getParamName(), key.getSize(), key.getEngine().getLabel(),
+                        g.getCount(), g.getSuccessRate() * 100, ci[0] * 100, ci[1] * 100,
+                        millis(g.getTime().getMean()), millis(g.getTime().getStdDev()),
+                        millis(h.getPercentile(50)), millis(h.getPercentile(95)), millis(h.getPercentile(99)), millis(h.getMax()));
+            }
+
+            System.out.println("Statistics saved to " + outputFile.getPath());
+        } catch (IOException e) {
+            System.err.println(e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,250 @@
+package com.ArloDante.coloredqueens.experiment;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.Callable;
+
+import com.ArloDante.coloredqueens.jfr.BoardBuildEvent;
+import com.ArloDante.coloredqueens.jfr.JfrInstrumentation;
+import com.ArloDante.coloredqueens.jfr.SearchEvent;
+import com.ArloDante.coloredqueens.objects.Board;
+import com.ArloDante.coloredqueens.objects.BoardView;
+import com.ArloDante.coloredqueens.objects.RegionOrder;
+import com.ArloDante.coloredqueens.solver.CountingInstrumentation;
+import com.ArloDante.coloredqueens.solver.SolverInstrumentation;
+import com.ArloDante.coloredqueens.solver.PSO.PSOSolverPermutation;
+import com.ArloDante.coloredqueens.solver.PSO.PSOSolverTest;
+import com.ArloDante.coloredqueens.solver.backtracking.BacktrackingSolverTest;
+import com.ArloDante.coloredqueens.util.BoardImporter;
+import com.ArloDante.coloredqueens.util.BoardRepository;
+import com.ArloDante.coloredqueens.util.PSOParameters;
+import com.ArloDante.coloredqueens.util.SolutionStore;
+
+//Satu unit kerja: (param set, size, level, engine, trial)
+//the seed only depends on size, level and trial so every param set sees the same random stream
+//In measurement mode the same solve is repeated: warmupRuns untimed, then timedRuns timed with nanoTime
+public class ExperimentTask implements Callable<TaskResult> {
+    private String paramName;
+    private PSOParameters params;
+    private int size;
+    private int level;
+    private Engine engine;
+    private int trial;
+    private long seed;
+    private long estimatedTime;
+    private int warmupRuns;
+    private int timedRuns = 1;
+    private boolean counting;
+    private BoardRepository repository;
+    private SolutionStore solutions;
+    private RegionOrder regionOrder = RegionOrder.FIRST_CELL;
+
+    public ExperimentTask(String paramName, PSOParameters params, int size, int level, Engine engine, int trial, long seed) {
+        this.paramName = paramName;
+        this.params = params;
+        this.size = size;
+        this.level = level;
+        this.engine = engine;
+        this.trial = trial;
+        this.seed = seed;
+    }
+
+    public static long seedFor(long baseSeed, int size, int level, int trial) {
+        //splitmix64 finalizer so neighbouring levels get unrelated seeds
+        long z = baseSeed + size * 0x9E3779B97F4A7C15L + level * 0xBF58476D1CE4E5B9L + trial * 0x94D049BB133111EBL;
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+
+    @Override
+    public TaskResult call() {
+        try {
+            BoardView view = (repository != null) ? repository.get(size, level) : BoardImporter.importView(size, level);
+
+            BoardBuildEvent build = new BoardBuildEvent();
+            build.begin();
+            Board board = new Board(view.getSize(), view.toCells(), regionOrder);
+            build.end();
+            if (build.shouldCommit()) {
+                build.set(size, level, engine.name(), board.getColorMap().size());
+                build.commit();
+            }
+
+            for (int i = 0; i < warmupRuns; i++) {
+                run(board);
+            }
+            if (warmupRuns == 0 && timedRuns == 1) {
+                return store(view, run(board));
+            }
+
+            //every run uses the same seed, so the timed runs all do the same work
+            TaskResult result = null;
+            long[] samples = new long[timedRuns];
+            for (int i = 0; i < timedRuns; i++) {
+                result = run(board);
+                samples[i] = result.getTimeNanos();
+            }
+            result.setSamples(samples);
+            return store(view, result);
+        } catch (Exception e) {
+            return TaskResult.failed(this, String.valueOf(e));
+        }
+    }
+
+    //the board is still solved every time (the time is what we measure), the store only keeps the first solution
+    private TaskResult store(BoardView view, TaskResult result) {
+        if (solutions != null && result.isValid()) {
+            try {
+                solutions.put(view, result.getCoordinates());
+            } catch (IOException | RuntimeException e) {
+                System.err.println("Could not store the solution of " + size + "x" + size + " level " + level + ": " + e.getMessage());
+            }
+        }
+        return result;
+    }
+
+    private TaskResult run(Board board) {
+        //while JFR records the search events the solvers also emit propagation and iteration events
+        JfrInstrumentation jfr = JfrInstrumentation.isRecording() ? new JfrInstrumentation(size, level, engine.name()) : null;
+        CountingInstrumentation counters = (jfr != null) ? jfr : counting ? new CountingInstrumentation() : null;
+        SolverInstrumentation instrumentation = (counters != null) ? counters : SolverInstrumentation.NONE;
+
+        SearchEvent search = new SearchEvent();
+        search.begin();
+
+        TaskResult result;
+        switch (engine) {
+            case BACKTRACKING:
+                result = runBacktracking(board, instrumentation);
+                break;
+            case PSO:
+                result = runPSO(board, instrumentation);
+                break;
+            case PSO_PERMUTATION:
+                result = runPSOPermutation(board, instrumentation);
+                break;
+            default:
+                throw new IllegalStateException("Unknown engine " + engine);
+        }
+
+        search.end();
+        if (jfr != null && search.shouldCommit()) {
+            search.set(jfr, result.isValid());
+            search.commit();
+        }
+
+        result.setCounters(counting ? counters : null);
+        return result;
+    }
+
+    private TaskResult runBacktracking(Board board, SolverInstrumentation instrumentation) {
+        BacktrackingSolverTest solver = new BacktrackingSolverTest(board);
+        solver.setInstrumentation(instrumentation);
+        boolean solved = solver.solve();
+        List<int[]> coords = solved ? solver.getSolutionCoordinates() : List.of();
+
+        TaskResult result = new TaskResult(this, coords, solver.getExecutionTime(), solved, solved ? 0 : Double.NaN, 0, 0);
+        result.setTimeNanos(solver.getExecutionTimeNanos());
+        return result;
+    }
+
+    private TaskResult runPSO(Board board, SolverInstrumentation instrumentation) {
+        PSOSolverTest solver = new PSOSolverTest(board,
+                params.iterations, params.particles,
+                params.c1, params.c2, params.neighborhoods,
+                params.inertia, params.w1, params.w2,
+                params.maxStagnation);
+        solver.setRepairSteps(params.repairSteps);
+        solver.setPrunedInitialization(params.prunedInit);
+        solver.setAdaptive(params.adaptive);
+        solver.setSeed(seed);
+        solver.setInstrumentation(instrumentation);
+
+        solver.solve();
+
+        TaskResult result = new TaskResult(this, solver.getSolutionCoordinates(), solver.getExecutionTime(), solver.isValid(),
+                solver.getFitness(), solver.getAdjacencyViolations(), solver.getAttackingViolations());
+        result.setTimeNanos(solver.getExecutionTimeNanos());
+        return result;
+    }
+
+    private TaskResult runPSOPermutation(Board board, SolverInstrumentation instrumentation) {
+        PSOSolverPermutation solver = new PSOSolverPermutation(board,
+                params.iterations, params.particles,
+                params.c1, params.c2, params.neighborhoods,
+                params.inertia, params.w1, params.w2,
+                params.maxStagnation);
+        solver.setVerbose(false);
+        solver.setSeed(seed);
+        solver.setInstrumentation(instrumentation);
+
+        solver.solve();
+
+        //the permutation encoding has no row/column attacks, its color violations are reported as att
+        TaskResult result = new TaskResult(this, solver.getSolutionCoordinates(), solver.getExecutionTime(), solver.isValid(),
+                solver.getFitness(), solver.getAdjacencyViolations(), solver.getRegionViolations());
+        result.setTimeNanos(solver.getExecutionTimeNanos());
+        return result;
+    }
+
+    public String getParamName() {
+        return paramName;
+    }
+
+    public int getSize() {
+        return size;
+    }
+
+    public int getLevel() {
+        return level;
+    }
+
+    public Engine getEngine() {
+        return engine;
+    }
+
+    public int getTrial() {
+        return trial;
+    }
+
+    public long getSeed() {
+        return seed;
+    }
+
+    //levels are reported in batches of 50, like the original batchMain output
+    public int getBatch() {
+        return (level - 1) / ExperimentRunner.BATCH_SIZE + 1;
+    }
+
+    public void setMeasurement(int warmupRuns, int timedRuns) {
+        this.warmupRuns = warmupRuns;
+        this.timedRuns = timedRuns;
+    }
+
+    //give every solve its own CountingInstrumentation, the result keeps the one of the last run
+    public void setCounting(boolean counting) {
+        this.counting = counting;
+    }
+
+    //every param set solves the same boards, with a shared repository each board is parsed once
+    public void setRepository(BoardRepository repository) {
+        this.repository = repository;
+    }
+
+    public void setRegionOrder(RegionOrder regionOrder) {
+        this.regionOrder = regionOrder;
+    }
+
+    public void setSolutionStore(SolutionStore solutions) {
+        this.solutions = solutions;
+    }
+
+    public long getEstimatedTime() {
+        return estimatedTime;
+    }
+
+    public void setEstimatedTime(long estimatedTime) {
+        this.estimatedTime = estimatedTime;
+    }
+}
@@ -0,0 +1,79 @@
+package com.ArloDante.coloredqueens.experiment;
+
+import java.util.Arrays;
+
+//HDR-style histogram with logarithmic buckets for percentiles of non-negative values (run times).
+//Values below 128 are counted exactly, above that every power of two is split into 64 buckets,
+//so a reported percentile is at most ~1.6% above the real value. Buckets grow on demand.
+public class LatencyHistogram {
+    private static final int SUB_BITS = 7;
+    private static final int LINEAR = 1 << SUB_BITS;       //128 exact buckets
+    private static final int HALF = LINEAR >>> 1;          //64 buckets per power of two after that
+
+    private long[] counts = new long[LINEAR];
+    private long total;
+    private long max;
+
+    public void add(long value) {
+        if (value < 0) value = 0;
+
+        int idx = indexOf(value);
+        if (idx >= counts.length) {
+            counts = Arrays.copyOf(counts, Math.max(idx + 1, counts.length + HALF));
+        }
+        counts[idx]++;
+        total++;
+        if (value > max) max = value;
+    }
+
+    public void merge(LatencyHistogram other) {
+        if (other.counts.length > counts.length) {
+            counts = Arrays.copyOf(counts, other.counts.length);
+        }
+        for (int i = 0; i < other.counts.length; i++) {
+            counts[i] += other.counts[i];
+        }
+        total += other.total;
+        max = Math.max(max, other.max);
+    }
+
+    static int indexOf(long value) {
+        if (value < LINEAR) return (int) value;
+
+        int shift = 63 - Long.numberOfLeadingZeros(value) - (SUB_BITS - 1);
+        int sub = (int) (value >>> shift); //in [64, 128)
+        return LINEAR + (shift - 1) * HALF + (sub - HALF);
+    }
+
+    //highest value that falls into the bucket
+    static long highestValue(int idx) {
+        if (idx < LINEAR) return idx;
+
+        int shift = (idx - LINEAR) / HALF + 1;
+        long sub = (idx - LINEAR) % HALF + HALF;
+        return ((sub + 1) << shift) - 1;
+    }
+
+    //percentile in [0, 100], never above the real maximum
+    public long getPercentile(double percentile) {
+        if (total == 0) return 0;
+
+        long rank = Math.max(1, (long) Math.ceil(percentile / 100.0 * total));
+        long seen = 0;
+        for (int i = 0; i < counts.length; i++) {
+            seen += counts[i];
+            if (seen >= rank) {
+                return Math.min(highestValue(i), max);
+            }
+        }
+        return max;
+    }
+
+    public long getCount() {
+        return total;
+    }
+
+    public long getMax() {
+        return max;
+    }
+}
@@ -0,0 +1,314 @@
+package com.ArloDante.coloredqueens.experiment;
+
+import java.io.*;
+import java.util.*;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+
+import com.ArloDante.coloredqueens.jfr.ResultWriteEvent;
+
+//Structured output of the task results next to the text result files.
+//Workers hand their results over a bounded queue to one writer thread, which drains whatever is queued
+//and writes it as one batch to every selected format, so there is a single flush per batch.
+//
+//CSV and NDJSON have one row/object per task, with the time in whole ms and in ns (sub-ms solves, medians of --measure).
+//The binary format is columnar: a header (magic "CQR2", "CQR1" had no ns column)
+//followed by blocks, every block is one drained batch stored column by column:
+//  int count, param dictionary (short n + n UTF strings), then the columns
+//  param index (short), size (short), level (short), engine ordinal (byte), trial (int), seed (long),
+//  time ms (long), time ns (long), valid (byte), fitness (double), adj (int), att (int),
+//  solution (short length + length * short row, short col), error (UTF, empty if none)
+public class ResultSink implements AutoCloseable {
+
+    public enum Format { CSV, NDJSON, BINARY }
+
+    private static final int DEFAULT_CAPACITY = 4096;
+    private static final int MAX_BATCH = 1024;
+    private static final int BINARY_MAGIC = 0x43515232; //"CQR2"
+
+    private static final TaskResult END = TaskResult.failed(null, "end");
+
+    private BlockingQueue<TaskResult> queue;
+    private List<TaskResult> batch;
+
+    private PrintWriter csvOut;
+    private PrintWriter jsonOut;
+    private DataOutputStream binaryOut;
+
+    private String target; //for the JFR events
+    private Thread writer;
+    private volatile IOException writeError;
+    private volatile boolean closing;
+
+    //writes <dir>/<baseName>.csv, .ndjson and/or .bin
+    public ResultSink(File dir, String baseName, Set<Format> formats) throws IOException {
+        this(dir, baseName, formats, DEFAULT_CAPACITY);
+    }
+
+    public ResultSink(File dir, String baseName, Set<Format> formats, int capacity) throws IOException {
+        this.queue = new ArrayBlockingQueue<>(capacity);
+        this.batch = new ArrayList<>(MAX_BATCH);
+        this.target = new File(dir, baseName).getPath() + " " + formats;
+
+        if (formats.contains(Format.CSV)) {
+            this.csvOut = new PrintWriter(new BufferedWriter(new FileWriter(new File(dir, baseName + ".csv")), 1 << 16));
+            csvOut.println("param,size,level,engine,trial,seed,timeMs,timeNs,valid,fitness,adj,att,solution,error");
+        }
+        if (formats.contains(Format.NDJSON)) {
+            this.jsonOut = new PrintWriter(new BufferedWriter(new FileWriter(new File(dir, baseName + ".ndjson")), 1 << 16));
+        }
+        if (formats.contains(Format.BINARY)) {
+            this.binaryOut = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(new File(dir, baseName + ".bin")), 1 << 16));
+            binaryOut.writeInt(BINARY_MAGIC);
+        }
+
+        this.writer = new Thread(this::drain, "result-writer");
+        this.writer.setDaemon(true);
+        this.writer.start();
+    }
+
+    //called by the worker threads, blocks only while the writer is a whole queue behind.
+    //results that arrive after close() started are dropped (workers still running after shutdownNow)
+    public void submit(TaskResult result) {
+        if (closing) return;
+        try {
+            queue.put(result);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void drain() {
+        try {
+            boolean done = false;
+            while (!done) {
+                batch.add(queue.take());
+                queue.drainTo(batch, MAX_BATCH - 1);
+
+                //a late submit can still land behind END in the same batch, everything from END on is dropped
+                int end = batch.indexOf(END);
+                if (end >= 0) {
+                    batch.subList(end, batch.size()).clear();
+                    done = true;
+                }
+
+                //after a failed write keep draining so the workers never block
+                if (writeError == null && !batch.isEmpty()) {
+                    try {
+                        write(batch);
+                    } catch (IOException e) {
+                        writeError = e;
+                    }
+                }
+                batch.clear();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void write(List<TaskResult> results) throws IOException {
+        ResultWriteEvent event = new ResultWriteEvent();
+        event.begin();
+
+        if (csvOut != null) {
+            for (TaskResult result : results) writeCsv(result);
+            csvOut.flush();
+        }
+        if (jsonOut != null) {
+            for (TaskResult result : results) writeJson(result);
+            jsonOut.flush();
+        }
+        if (binaryOut != null) {
+            writeBinaryBlock(results);
+            binaryOut.flush();
+        }
+
+        event.end();
+        if (event.shouldCommit()) {
+            event.set(target, results.size());
+            event.commit();
+        }
+    }
+
+    private void writeCsv(TaskResult result) {
+        ExperimentTask task = result.getTask();
+
+        csvOut.print(task.getParamName());
+        csvOut.print(',');
+        csvOut.print(task.getSize());
+        csvOut.print(',');
+        csvOut.print(task.getLevel());
+        csvOut.print(',');
+        csvOut.print(task.getEngine().name());
+        csvOut.print(',');
+        csvOut.print(task.getTrial());
+        csvOut.print(',');
+        csvOut.print(task.getSeed());
+        csvOut.print(',');
+        csvOut.print(result.getTime());
+        csvOut.print(',');
+        csvOut.print(result.getTimeNanos());
+        csvOut.print(',');
+        csvOut.print(result.isValid());
+        csvOut.print(',');
+        csvOut.print(result.getFitness());
+        csvOut.print(',');
+        csvOut.print(result.getAdjacencyViolations());
+        csvOut.print(',');
+        csvOut.print(result.getAttackingViolations());
+        csvOut.print(",\"");
+
+        List<int[]> coords = result.getCoordinates();
+        for (int i = 0; i < coords.size(); i++) {
+            if (i > 0) csvOut.print(' ');
+            csvOut.print(coords.get(i)[0]);
+            csvOut.print(':');
+            csvOut.print(coords.get(i)[1]);
+        }
+        csvOut.print("\",");
+
+        if (result.isFailed()) {
+            csvOut.print('"');
+            csvOut.print(String.valueOf(result.getError()).replace("\"", "\"\"").replace('\n', ' '));
+            csvOut.print('"');
+        }
+        csvOut.println();
+    }
+
+    private void writeJson(TaskResult result) {
+        ExperimentTask task = result.getTask();
+        StringBuilder sb = new StringBuilder(256);
+
+        sb.append("{\"param\":");
+        appendJsonString(sb, task.getParamName());
+        sb.append(",\"size\":").append(task.getSize());
+        sb.append(",\"level\":").append(task.getLevel());
+        sb.append(",\"engine\":\"").append(task.getEngine().name()).append('"');
+        sb.append(",\"trial\":").append(task.getTrial());
+        sb.append(",\"seed\":").append(task.getSeed());
+        sb.append(",\"timeMs\":").append(result.getTime());
+        sb.append(",\"timeNs\":").append(result.getTimeNanos());
+        sb.append(",\"valid\":").append(result.isValid());
+
+        //NaN is not valid JSON
+        double fitness = result.getFitness();
+        sb.append(",\"fitness\":").append(Double.isFinite(fitness) ? String.valueOf(fitness) : "null");
+        sb.append(",\"adj\":").append(result.getAdjacencyViolations());
+        sb.append(",\"att\":").append(result.getAttackingViolations());
+
+        sb.append(",\"solution\":[");
+        List<int[]> coords = result.getCoordinates();
+        for (int i = 0; i < coords.size(); i++) {
+            if (i > 0) sb.append(',');
+            sb.append('[').append(coords.get(i)[0]).append(',').append(coords.get(i)[1]).append(']');
+        }
+        sb.append("],\"error\":");
+
+        if (result.isFailed()) {
+            appendJsonString(sb, String.valueOf(result.getError()));
+        } else {
+            sb.append("null");
+        }
+        sb.append('}');
+
+        jsonOut.println(sb);
+    }
+
+    private static void appendJsonString(StringBuilder sb, String s) {
+        sb.append('"');
+        for (int i = 0; i < s.length(); i++) {
+            char c = s.charAt(i);
+            switch (c) {
+                case '"': sb.append("\\\""); break;
+                case '\\': sb.append("\\\\"); break;
+                case '\n': sb.append("\\n"); break;
+                case '\r': sb.append("\\r"); break;
+                case '\t': sb.append("\\t"); break;
+                default:
+                    if (c < 0x20) {
+                        sb.append(String.format("\\u%04x", (int) c));
+                    } else {
+                        sb.append(c);
+                    }
+            }
+        }
+        sb.append('"');
+    }
+
+    private void writeBinaryBlock(List<TaskResult> results) throws IOException {
+        DataOutputStream out = binaryOut;
+        out.writeInt(results.size());
+
+        //param names are repeated on almost every row, store them once per block
+        Map<String, Integer> dictionary = new LinkedHashMap<>();
+        for (TaskResult result : results) {
+            dictionary.putIfAbsent(result.getTask().getParamName(), dictionary.size());
+        }
+        out.writeShort(dictionary.size());
+        for (String name : dictionary.keySet()) {
+            out.writeUTF(name);
+        }
+
+        for (TaskResult r : results) out.writeShort(dictionary.get(r.getTask().getParamName()));
+        for (TaskResult r : results) out.writeShort(r.getTask().getSize());
+        for (TaskResult r : results) out.writeShort(r.getTask().getLevel());
+        for (TaskResult r : results) out.writeByte(r.getTask().getEngine().ordinal());
+        for (TaskResult r : results) out.writeInt(r.getTask().getTrial());
+        for (TaskResult r : results) out.writeLong(r.getTask().getSeed());
+        for (TaskResult r : results) out.writeLong(r.getTime());
+        for (TaskResult r : results) out.writeLong(r.getTimeNanos());
+        for (TaskResult r : results) out.writeByte(r.isValid() ? 1 : 0);
+        for (TaskResult r : results) out.writeDouble(r.getFitness());
+        for (TaskResult r : results) out.writeInt(r.getAdjacencyViolations());
+        for (TaskResult r : results) out.writeInt(r.getAttackingViolations());
+
+        for (TaskResult r : results) {
+            List<int[]> coords = r.getCoordinates();
+            out.writeShort(coords.size());
+            for (int[] c : coords) {
+                out.writeShort(c[0]);
+                out.writeShort(c[1]);
+            }
+        }
+
+        for (TaskResult r : results) out.writeUTF(r.isFailed() ? String.valueOf(r.getError()) : "");
+    }
+
+    //writes everything still queued and waits for the writer to finish
+    @Override
+    public void close() throws IOException {
+        closing = true;
+        try {
+            queue.put(END);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+
+        try {
+            writer.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+
+        if (csvOut != null) {
+            if (csvOut.checkError() && writeError == null) {
+                writeError = new IOException("Failed to write results CSV");
+            }
+            csvOut.close();
+        }
+        if (jsonOut != null) {
+            if (jsonOut.checkError() && writeError == null) {
+                writeError = new IOException("Failed to write results NDJSON");
+            }
+            jsonOut.close();
+        }
+        if (binaryOut != null) {
+            binaryOut.close();
+        }
+
+        if (writeError != null) {
+            throw writeError;
+        }
+    }
+}
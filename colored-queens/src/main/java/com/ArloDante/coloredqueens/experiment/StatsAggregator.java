@@ -0,0 +1,137 @@
+package com.ArloDante.coloredqueens.experiment;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+//Streaming statistics per (param set, size, engine).
+//Every worker thread records into its own map, so recording needs no locks or atomics,
+//merge() combines the per-thread maps once the workers are done.
+public class StatsAggregator {
+    private ConcurrentLinkedQueue<Map<GroupKey, GroupStats>> shards = new ConcurrentLinkedQueue<>();
+
+    private ThreadLocal<Map<GroupKey, GroupStats>> local = ThreadLocal.withInitial(() -> {
+        Map<GroupKey, GroupStats> shard = new HashMap<>();
+        shards.add(shard);
+        return shard;
+    });
+
+    public void record(TaskResult result) {
+        if (result.isFailed()) return;
+
+        ExperimentTask task = result.getTask();
+        GroupKey key = new GroupKey(task.getParamName(), task.getSize(), task.getEngine());
+        local.get().computeIfAbsent(key, k -> new GroupStats()).add(result.getTimeNanos(), result.isValid());
+    }
+
+    //only call when no worker is recording anymore (e.g. after all futures completed)
+    public Map<GroupKey, GroupStats> merge() {
+        Map<GroupKey, GroupStats> merged = new TreeMap<>();
+        for (Map<GroupKey, GroupStats> shard : shards) {
+            for (Map.Entry<GroupKey, GroupStats> entry : shard.entrySet()) {
+                merged.computeIfAbsent(entry.getKey(), k -> new GroupStats()).merge(entry.getValue());
+            }
+        }
+        return merged;
+    }
+
+    public static class GroupKey implements Comparable<GroupKey> {
+        private String paramName;
+        private int size;
+        private Engine engine;
+
+        public GroupKey(String paramName, int size, Engine engine) {
+            this.paramName = paramName;
+            this.size = size;
+            this.engine = engine;
+        }
+
+        public String getParamName() {
+            return paramName;
+        }
+
+        public int getSize() {
+            return size;
+        }
+
+        public Engine getEngine() {
+            return engine;
+        }
+
+        @Override
+        public int compareTo(GroupKey o) {
+            int c = paramName.compareTo(o.paramName);
+            if (c != 0) return c;
+            c = Integer.compare(size, o.size);
+            if (c != 0) return c;
+            return engine.compareTo(o.engine);
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (!(o instanceof GroupKey)) return false;
+            GroupKey k = (GroupKey) o;
+            return size == k.size && engine == k.engine && paramName.equals(k.paramName);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(paramName, size, engine);
+        }
+    }
+
+    //times in nanoseconds (most boards up to 10x10 solve in under 1 ms), converted when printed
+    public static class GroupStats {
+        private RunningStats time = new RunningStats();
+        private LatencyHistogram histogram = new LatencyHistogram();
+        private long successes;
+
+        void add(long timeNanos, boolean valid) {
+            this.time.add(timeNanos);
+            this.histogram.add(timeNanos);
+            if (valid) successes++;
+        }
+
+        void merge(GroupStats other) {
+            time.merge(other.time);
+            histogram.merge(other.histogram);
+            successes += other.successes;
+        }
+
+        public long getCount() {
+            return time.getCount();
+        }
+
+        public long getSuccesses() {
+            return successes;
+        }
+
+        public RunningStats getTime() {
+            return time;
+        }
+
+        public LatencyHistogram getHistogram() {
+            return histogram;
+        }
+
+        public double getSuccessRate() {
+            return getCount() > 0 ? (double) successes / getCount() : 0;
+        }
+
+        //95% Wilson score interval of the success rate, {low, high}
+        public double[] getSuccessInterval() {
+            return wilson(successes, getCount(), 1.96);
+        }
+    }
+
+    static double[] wilson(long successes, long n, double z) {
+        if (n == 0) return new double[]{0, 0};
+
+        double p = (double) successes / n;
+        double z2 = z * z;
+        double denominator = 1 + z2 / n;
+        double center = (p + z2 / (2 * n)) / denominator;
+        double half = z * Math.sqrt(p * (1 - p) / n + z2 / (4.0 * n * n)) / denominator;
+
+        return new double[]{Math.max(0, center - half), Math.min(1, center + half)};
+    }
+}
@@ -0,0 +1,81 @@
+package com.ArloDante.coloredqueens.experiment;
+
+import java.util.*;
+
+//Statistik per ukuran papan dan per batch untuk file summary (format sama dengan batchMain lama).
+//Backtracking results are always included, PSO columns come from one parameterised engine.
+//Tail latency and the success interval per size come from the streaming StatsAggregator groups.
+public class SummaryStats {
+    private String paramName;
+    private Engine psoEngine;
+    private Map<StatsAggregator.GroupKey, StatsAggregator.GroupStats> groups;
+    private Map<Integer, List<BatchStats>> data = new TreeMap<>();
+
+    public SummaryStats(String paramName, Engine psoEngine, Map<StatsAggregator.GroupKey, StatsAggregator.GroupStats> groups) {
+        this.paramName = paramName;
+        this.psoEngine = psoEngine;
+        this.groups = groups;
+    }
+
+    public void add(TaskResult result) {
+        if (result.isFailed()) return;
+
+        ExperimentTask task = result.getTask();
+        if (task.getEngine() != Engine.BACKTRACKING && task.getEngine() != psoEngine) return;
+
+        BatchStats b = getBatch(task.getSize(), task.getBatch());
+
+        if (task.getEngine() == Engine.BACKTRACKING) {
+            b.btTotal++;
+            b.btTime += result.getTime();
+        } else {
+            b.psoTotal++;
+            if (result.isValid()) b.psoValid++;
+            b.psoTime += result.getTime();
+        }
+    }
+
+    private BatchStats getBatch(int size, int batch) {
+        List<BatchStats> list = data.computeIfAbsent(size, k -> new ArrayList<>());
+
+        while (list.size() < batch) {
+            list.add(new BatchStats());
+        }
+
+        return list.get(batch - 1);
+    }
+
+    public Set<Integer> getSizes() {
+        return data.keySet();
+    }
+
+    public List<BatchStats> getBatches(int size) {
+        return data.get(size);
+    }
+
+    public Engine getPSOEngine() {
+        return psoEngine;
+    }
+
+    //null if the engine did not run on this size
+    public StatsAggregator.GroupStats getGroup(int size, Engine engine) {
+        return groups.get(new StatsAggregator.GroupKey(paramName, size, engine));
+    }
+
+    public static class BatchStats {
+        int psoValid = 0;
+        int psoTotal = 0;
+        long psoTime = 0;
+
+        int btTotal = 0;
+        long btTime = 0;
+
+        long getPSOAvg() {
+            return psoTotal > 0 ? psoTime / psoTotal : 0;
+        }
+
+        long getBTAvg() {
+            return btTotal > 0 ? btTime / btTotal : 0;
+        }
+    }
+}
@@ -0,0 +1,119 @@
+package com.ArloDante.coloredqueens.experiment;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Objects;
+
+import com.ArloDante.coloredqueens.solver.CountingInstrumentation;
+
+//Hasil satu ExperimentTask
+public class TaskResult {
+    private ExperimentTask task;
+    private List<int[]> coordinates;
+    private long time;
+    private long timeNanos;
+    private boolean valid;
+    private double fitness;
+    private int adjacencyViolations;
+    private int attackingViolations;
+    private String error;
+    private long[] samples; //nanoTime of every timed run in measurement mode, null otherwise
+    private CountingInstrumentation counters; //null unless the runner counts
+
+    public TaskResult(ExperimentTask task, List<int[]> coordinates, long time, boolean valid,
+                      double fitness, int adjacencyViolations, int attackingViolations) {
+        this.task = task;
+        this.coordinates = coordinates;
+        this.time = time;
+        this.timeNanos = time * 1_000_000;
+        this.valid = valid;
+        this.fitness = fitness;
+        this.adjacencyViolations = adjacencyViolations;
+        this.attackingViolations = attackingViolations;
+    }
+
+    //error is never null, isFailed() depends on it
+    public static TaskResult failed(ExperimentTask task, String error) {
+        TaskResult result = new TaskResult(task, List.of(), 0, false, Double.NaN, 0, 0);
+        result.error = Objects.requireNonNullElse(error, "unknown error");
+        return result;
+    }
+
+    public ExperimentTask getTask() {
+        return task;
+    }
+
+    public List<int[]> getCoordinates() {
+        return coordinates;
+    }
+
+    public long getTime() {
+        return time;
+    }
+
+    public long getTimeNanos() {
+        return timeNanos;
+    }
+
+    public void setTimeNanos(long timeNanos) {
+        this.timeNanos = timeNanos;
+        this.time = timeNanos / 1_000_000;
+    }
+
+    public boolean isValid() {
+        return valid;
+    }
+
+    public double getFitness() {
+        return fitness;
+    }
+
+    public int getAdjacencyViolations() {
+        return adjacencyViolations;
+    }
+
+    public int getAttackingViolations() {
+        return attackingViolations;
+    }
+
+    public long[] getSamples() {
+        return samples;
+    }
+
+    //also sets the reported time to the median so summaries use the measured value
+    public void setSamples(long[] samples) {
+        this.samples = samples;
+        setTimeNanos(getMedianNanos());
+    }
+
+    public boolean hasSamples() {
+        return samples != null && samples.length > 0;
+    }
+
+    public long getMinNanos() {
+        return Arrays.stream(samples).min().orElse(0);
+    }
+
+    public long getMedianNanos() {
+        long[] sorted = samples.clone();
+        Arrays.sort(sorted);
+        int mid = sorted.length / 2;
+        return (sorted.length % 2 == 1) ? sorted[mid] : (sorted[mid - 1] + sorted[mid]) / 2;
+    }
+
+    public CountingInstrumentation getCounters() {
+        return counters;
+    }
+
+    public void setCounters(CountingInstrumentation counters) {
+        this.counters = counters;
+    }
+
+    public String getError() {
+        return error;
+    }
+
+    public boolean isFailed() {
+        return error != null;
+    }
+}
@@ -0,0 +1,101 @@
+package com.ArloDante.coloredqueens.experiment;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.FileReader;
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+//Estimates task durations from earlier result files so the longest tasks can be scheduled first
+public class TimingHistory {
+    private static final Pattern FILE_NAME = Pattern.compile("results(\\d+)x\\d+_.*\\.txt");
+    private static final Pattern LEVEL_LINE = Pattern.compile("Level (\\d+):");
+    private static final Pattern RESULT_LINE = Pattern.compile("\\s*([A-Za-z-]+)(?: \\(trial \\d+\\))?: .*?(\\d+)ms.*");
+
+    //exact (param, size, level, engine) timings and (size, engine) means as fallback
+    private Map<String, Long> levelTimes = new HashMap<>();
+    private Map<String, long[]> sizeTimes = new HashMap<>();
+
+    public static TimingHistory load(File resultsRoot) {
+        TimingHistory history = new TimingHistory();
+
+        File[] paramDirs = resultsRoot.listFiles(File::isDirectory);
+        if (paramDirs == null) return history;
+
+        for (File paramDir : paramDirs) {
+            File[] files = paramDir.listFiles((dir, name) -> FILE_NAME.matcher(name).matches());
+            if (files == null) continue;
+
+            for (File file : files) {
+                Matcher m = FILE_NAME.matcher(file.getName());
+                m.matches();
+                int size = Integer.parseInt(m.group(1));
+
+                try {
+                    history.readFile(paramDir.getName(), size, file);
+                } catch (IOException e) {
+                    System.err.println("Skipping timing history " + file + ": " + e.getMessage());
+                }
+            }
+        }
+
+        return history;
+    }
+
+    private void readFile(String paramName, int size, File file) throws IOException {
+        try (BufferedReader reader = new BufferedReader(new FileReader(file))) {
+            int level = 1;
+            String line;
+
+            while ((line = reader.readLine()) != null) {
+                Matcher levelMatcher = LEVEL_LINE.matcher(line);
+                if (levelMatcher.matches()) {
+                    level = Integer.parseInt(levelMatcher.group(1));
+                    continue;
+                }
+
+                Matcher resultMatcher = RESULT_LINE.matcher(line);
+                if (!resultMatcher.matches()) continue;
+
+                Engine engine = engineFor(resultMatcher.group(1));
+                if (engine == null) continue;
+
+                record(paramName, size, level, engine, Long.parseLong(resultMatcher.group(2)));
+            }
+        }
+    }
+
+    private static Engine engineFor(String label) {
+        for (Engine engine : Engine.values()) {
+            if (engine.getLabel().equals(label)) return engine;
+        }
+        return null;
+    }
+
+    private void record(String paramName, int size, int level, Engine engine, long time) {
+        levelTimes.merge(levelKey(paramName, size, level, engine), time, Math::max);
+
+        long[] sum = sizeTimes.computeIfAbsent(size + "|" + engine, k -> new long[2]);
+        sum[0] += time;
+        sum[1]++;
+    }
+
+    public long estimate(ExperimentTask task) {
+        Long exact = levelTimes.get(levelKey(task.getParamName(), task.getSize(), task.getLevel(), task.getEngine()));
+        if (exact != null) return exact;
+
+        long[] sum = sizeTimes.get(task.getSize() + "|" + task.getEngine());
+        if (sum != null && sum[1] > 0) return sum[0] / sum[1];
+
+        //no history at all: PSO cost grows quickly with the board size, backtracking is cheap
+        double scale = Math.pow(task.getSize() / 7.0, 4);
+        return (long) ((task.getEngine().usesParameters() ? 1000 : 1) * scale);
+    }
+
+    private static String levelKey(String paramName, int size, int level, Engine engine) {
+        return paramName + "|" + size + "|" + level + "|" + engine;
+    }
+}
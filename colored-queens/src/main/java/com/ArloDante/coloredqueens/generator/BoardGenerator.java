@@ -0,0 +1,251 @@
+package com.ArloDante.coloredqueens.generator;
+
+import java.awt.Color;
+import java.io.File;
+import java.io.IOException;
+import java.util.*;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import com.ArloDante.coloredqueens.objects.ArrayBoard;
+import com.ArloDante.coloredqueens.util.BoardExporter;
+import com.ArloDante.coloredqueens.util.CorpusLoader;
+import com.ArloDante.coloredqueens.util.OffHeapCorpus;
+
+//Synthetic boards of any size for scaling tests. A valid queen placement is planted first (one per row and
+//column, no two touching), then n regions are grown from the queens at random until every cell belongs to one,
+//so each region is connected, holds exactly one queen and the planted placement is always a solution.
+//variance spreads the region sizes: every region grows at a rate exp(variance * gaussian), 0 gives similar sizes.
+//
+//Usage: BoardGenerator [--sizes=25,50,100,200] [--count=N] [--variance=X] [--seed=N] [--threads=N] [--output=dir]
+//Boards go to boards-synthetic/NxN_levelL.json, read them with CorpusLoader.loadDirectory or copy them to boards/.
+public class BoardGenerator {
+    public static final String DEFAULT_FOLDER = "boards-synthetic";
+
+    private double variance;
+
+    public BoardGenerator(double variance) {
+        this.variance = variance;
+    }
+
+    public static void main(String[] args) throws Exception {
+        int[] sizes = {25, 50, 100, 150, 200};
+        int count = 50;
+        double variance = 0.5;
+        long seed = 0;
+        int threads = Runtime.getRuntime().availableProcessors();
+        File output = new File(DEFAULT_FOLDER);
+
+        for (String arg : args) {
+            if (arg.startsWith("--sizes=")) {
+                sizes = Arrays.stream(arg.substring("--sizes=".length()).split(",")).mapToInt(s -> Integer.parseInt(s.trim())).toArray();
+            } else if (arg.startsWith("--count=")) {
+                count = Integer.parseInt(arg.substring("--count=".length()));
+            } else if (arg.startsWith("--variance=")) {
+                variance = Double.parseDouble(arg.substring("--variance=".length()));
+            } else if (arg.startsWith("--seed=")) {
+                seed = Long.parseLong(arg.substring("--seed=".length()));
+            } else if (arg.startsWith("--threads=")) {
+                threads = Integer.parseInt(arg.substring("--threads=".length()));
+            } else if (arg.startsWith("--output=")) {
+                output = new File(arg.substring("--output=".length()));
+            }
+        }
+
+        for (int size : sizes) {
+            if (size < 4) throw new IllegalArgumentException("No valid placement exists below 4x4: " + size);
+        }
+        if (!output.exists()) output.mkdirs();
+
+        long start = System.currentTimeMillis();
+        int written = new BoardGenerator(variance).generateAll(sizes, count, seed, threads, output);
+        System.out.println("Generated " + written + " boards in " + output.getPath() + " (" + (System.currentTimeMillis() - start) + " ms)");
+    }
+
+    //every board gets its own seed, so the result does not depend on the number of threads
+    public int generateAll(int[] sizes, int count, long seed, int threads, File output) throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int size : sizes) {
+                for (int level = 1; level <= count; level++) {
+                    int n = size;
+                    int l = level;
+                    futures.add(executor.submit(() -> {
+                        ArrayBoard board = generate(n, new Random(seedFor(seed, n, l)));
+                        String error = CorpusLoader.validate(board, n);
+                        if (error != null) throw new IllegalStateException(n + "x" + n + " level " + l + ": " + error);
+                        BoardExporter.write(board, new File(output, n + "x" + n + "_level" + l + ".json"));
+                        return null;
+                    }));
+                }
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+            return futures.size();
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    //same boards as generateAll, appended to an off-heap corpus instead of files (for sweeps over millions of boards).
+    //with more than one thread the order in the corpus is not the level order
+    public int fill(OffHeapCorpus corpus, int[] sizes, int count, long seed, int threads) throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int size : sizes) {
+                for (int t = 0; t < threads; t++) {
+                    int n = size;
+                    int first = t;
+                    futures.add(executor.submit(() -> {
+                        for (int level = 1 + first; level <= count; level += threads) {
+                            ArrayBoard board = generate(n, new Random(seedFor(seed, n, level)));
+                            corpus.add(board);
+                        }
+                        return null;
+                    }));
+                }
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+            return sizes.length * count;
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    static long seedFor(long baseSeed, int size, int level) {
+        long z = baseSeed + size * 0x9E3779B97F4A7C15L + level * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+
+    public ArrayBoard generate(int size, Random random) {
+        int[] queens = plantQueens(size, random);
+        int[] regions = growRegions(size, queens, random);
+        ArrayBoard board = new ArrayBoard(size, regions, palette(size));
+
+        //first-appearance numbering like every other ArrayBoard
+        return ArrayBoard.fromRgb(size, toRgb(board));
+    }
+
+    //queens[row] = column, a random permutation where neighbouring rows are at least 2 columns apart
+    public static int[] plantQueens(int size, Random random) {
+        while (true) {
+            int[] queens = new int[size];
+            boolean[] used = new boolean[size];
+            if (place(queens, used, 0, random, new int[]{size * 20})) return queens;
+        }
+    }
+
+    private static boolean place(int[] queens, boolean[] used, int row, Random random, int[] budget) {
+        int size = queens.length;
+        if (row == size) return true;
+        if (--budget[0] < 0) return false; //unlucky start, the caller restarts
+
+        int offset = random.nextInt(size);
+        for (int i = 0; i < size; i++) {
+            int col = (offset + i) % size;
+            if (used[col] || (row > 0 && Math.abs(queens[row - 1] - col) < 2)) continue;
+
+            queens[row] = col;
+            used[col] = true;
+            if (place(queens, used, row + 1, random, budget)) return true;
+            used[col] = false;
+            if (budget[0] < 0) return false;
+        }
+        return false;
+    }
+
+    //region of every cell (row by row), region r starts at the queen in row r
+    public int[] growRegions(int size, int[] queens, Random random) {
+        int cells = size * size;
+        int[] regions = new int[cells];
+        Arrays.fill(regions, -1);
+
+        double[] rates = new double[size];
+        List<List<Integer>> frontiers = new ArrayList<>(size);
+        for (int r = 0; r < size; r++) {
+            rates[r] = Math.exp(variance * random.nextGaussian());
+            frontiers.add(new ArrayList<>());
+            int cell = r * size + queens[r];
+            regions[cell] = r;
+            addNeighbours(frontiers.get(r), cell, size, regions);
+        }
+
+        int assigned = size;
+        double totalRate = 0;
+        for (double rate : rates) totalRate += rate;
+
+        while (assigned < cells) {
+            //pick a region by its rate, regions that can no longer grow drop out
+            double pick = random.nextDouble() * totalRate;
+            int region = 0;
+            while (region < size - 1 && (pick -= rates[region]) > 0) region++;
+            if (rates[region] == 0) continue;
+
+            List<Integer> frontier = frontiers.get(region);
+            int cell = -1;
+            while (!frontier.isEmpty() && cell == -1) {
+                int i = random.nextInt(frontier.size());
+                int candidate = frontier.get(i);
+                frontier.set(i, frontier.get(frontier.size() - 1));
+                frontier.remove(frontier.size() - 1);
+                if (regions[candidate] == -1) cell = candidate;
+            }
+
+            if (cell == -1) {
+                totalRate -= rates[region];
+                rates[region] = 0;
+                continue;
+            }
+
+            regions[cell] = region;
+            assigned++;
+            addNeighbours(frontier, cell, size, regions);
+        }
+
+        return regions;
+    }
+
+    private static void addNeighbours(List<Integer> frontier, int cell, int size, int[] regions) {
+        int row = cell / size;
+        int col = cell % size;
+        if (row > 0 && regions[cell - size] == -1) frontier.add(cell - size);
+        if (row < size - 1 && regions[cell + size] == -1) frontier.add(cell + size);
+        if (col > 0 && regions[cell - 1] == -1) frontier.add(cell - 1);
+        if (col < size - 1 && regions[cell + 1] == -1) frontier.add(cell + 1);
+    }
+
+    //n clearly different colors: hues spread by the golden angle, lightness cycling for large n
+    public static int[] palette(int size) {
+        int[] palette = new int[size];
+        Set<Integer> used = new HashSet<>();
+        double hue = 0;
+        for (int r = 0; r < size; r++) {
+            float saturation = 0.45f + 0.15f * (r % 4);
+            float brightness = 0.95f - 0.12f * ((r / 4) % 4);
+            int rgb;
+            do {
+                hue = (hue + 0.618033988749895) % 1.0;
+                rgb = Color.HSBtoRGB((float) hue, saturation, brightness) & 0xFFFFFF;
+            } while (!used.add(rgb));
+            palette[r] = rgb;
+        }
+        return palette;
+    }
+
+    private static int[] toRgb(ArrayBoard board) {
+        int size = board.getSize();
+        int[] rgb = new int[size * size];
+        for (int c = 0; c < rgb.length; c++) {
+            rgb[c] = board.getRegionRgb(board.getRegion(c / size, c % size));
+        }
+        return rgb;
+    }
+}
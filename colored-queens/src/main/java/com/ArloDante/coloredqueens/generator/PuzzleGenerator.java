@@ -0,0 +1,209 @@
+package com.ArloDante.coloredqueens.generator;
+
+import java.io.File;
+import java.util.*;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLong;
+
+import com.ArloDante.coloredqueens.objects.ArrayBoard;
+import com.ArloDante.coloredqueens.util.BoardExporter;
+import com.ArloDante.coloredqueens.util.CorpusLoader;
+
+//Puzzles with exactly one solution, for level packs beyond the scraped ones.
+//Starts from a BoardGenerator board (planted queens, grown regions) and counts its solutions up to 2.
+//While there is a second solution one of its queens (one that differs from the planted placement) is taken away
+//from its region: that cell is moved to a neighbouring region, which breaks that solution but never the planted
+//one. The counter is updated in place and old second solutions are re-checked first, a full count only runs when
+//none of them is still valid. Boards that get stuck are thrown away and started again.
+//
+//Usage: PuzzleGenerator [--sizes=7,8,9,10,11,12] [--count=N] [--start=L] [--variance=X] [--seed=N] [--threads=N] [--output=dir]
+//Puzzles go to boards-generated/NxN_levelL.json, levels numbered from --start (e.g. --output=boards --start=251).
+public class PuzzleGenerator {
+    public static final String DEFAULT_FOLDER = "boards-generated";
+
+    private static final int MAX_WITNESSES = 8;  //old second solutions re-checked before counting again
+    private static final int MOVES_PER_CELL = 2; //refinement steps per cell before the board is dropped
+
+    private BoardGenerator boards;
+    private AtomicLong counts = new AtomicLong();
+    private AtomicLong restarts = new AtomicLong();
+
+    public PuzzleGenerator(double variance) {
+        this.boards = new BoardGenerator(variance);
+    }
+
+    public static void main(String[] args) throws Exception {
+        int[] sizes = {7, 8, 9, 10, 11, 12};
+        int count = 50;
+        int start = 1;
+        double variance = 0.5;
+        long seed = 0;
+        int threads = Runtime.getRuntime().availableProcessors();
+        File output = new File(DEFAULT_FOLDER);
+
+        for (String arg : args) {
+            if (arg.startsWith("--sizes=")) {
+                sizes = Arrays.stream(arg.substring("--sizes=".length()).split(",")).mapToInt(s -> Integer.parseInt(s.trim())).toArray();
+            } else if (arg.startsWith("--count=")) {
+                count = Integer.parseInt(arg.substring("--count=".length()));
+            } else if (arg.startsWith("--start=")) {
+                start = Integer.parseInt(arg.substring("--start=".length()));
+            } else if (arg.startsWith("--variance=")) {
+                variance = Double.parseDouble(arg.substring("--variance=".length()));
+            } else if (arg.startsWith("--seed=")) {
+                seed = Long.parseLong(arg.substring("--seed=".length()));
+            } else if (arg.startsWith("--threads=")) {
+                threads = Integer.parseInt(arg.substring("--threads=".length()));
+            } else if (arg.startsWith("--output=")) {
+                output = new File(arg.substring("--output=".length()));
+            }
+        }
+
+        for (int size : sizes) {
+            if (size < 4 || size > 64) throw new IllegalArgumentException("Sizes from 4 to 64 are supported: " + size);
+        }
+        if (!output.exists()) output.mkdirs();
+
+        PuzzleGenerator generator = new PuzzleGenerator(variance);
+        long begin = System.nanoTime();
+        int written = generator.generateAll(sizes, start, count, seed, threads, output);
+        double seconds = (System.nanoTime() - begin) / 1e9;
+
+        System.out.printf("Generated %d unique puzzles in %s (%.1f s, %.1f puzzles/s per thread, %d counts, %d restarts)%n",
+                written, output.getPath(), seconds, written / seconds / threads, generator.counts.get(), generator.restarts.get());
+    }
+
+    //every puzzle gets its own seed, so the result does not depend on the number of threads
+    public int generateAll(int[] sizes, int start, int count, long seed, int threads, File output) throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int size : sizes) {
+                for (int level = start; level < start + count; level++) {
+                    int n = size;
+                    int l = level;
+                    futures.add(executor.submit(() -> {
+                        ArrayBoard board = generate(n, new Random(BoardGenerator.seedFor(seed, n, l)));
+                        String error = CorpusLoader.validate(board, n);
+                        if (error != null) throw new IllegalStateException(n + "x" + n + " level " + l + ": " + error);
+                        BoardExporter.write(board, new File(output, n + "x" + n + "_level" + l + ".json"));
+                        return null;
+                    }));
+                }
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+            return futures.size();
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    public ArrayBoard generate(int size, Random random) {
+        while (true) {
+            int[] planted = BoardGenerator.plantQueens(size, random);
+            int[] regions = boards.growRegions(size, planted, random);
+            if (refine(size, regions, planted, random)) {
+                return ArrayBoard.fromRgb(size, toRgb(size, regions, BoardGenerator.palette(size)));
+            }
+            restarts.incrementAndGet();
+        }
+    }
+
+    //changes regions in place until the planted placement is the only solution, false if it got stuck
+    private boolean refine(int size, int[] regions, int[] planted, Random random) {
+        SolutionCounter counter = new SolutionCounter(size, regions);
+        Deque<int[]> witnesses = new ArrayDeque<>();
+
+        for (int step = 0; step < size * size * MOVES_PER_CELL; step++) {
+            int[] witness = null;
+            for (int[] old : witnesses) {
+                if (counter.isSolution(old)) {
+                    witness = old;
+                    break;
+                }
+            }
+
+            if (witness == null) {
+                counts.incrementAndGet();
+                if (counter.count(2) < 2) return true;
+                for (int[] solution : counter.getSolutions()) {
+                    if (!Arrays.equals(solution, planted)) witness = solution;
+                }
+                witnesses.addFirst(witness);
+                if (witnesses.size() > MAX_WITNESSES) witnesses.removeLast();
+            }
+
+            if (!breakWitness(size, regions, planted, witness, counter, random)) return false;
+        }
+        return false;
+    }
+
+    //moves one witness queen's cell into a neighbouring region. If that cuts its region in two, the part that
+    //lost the planted queen goes along with it, so both regions stay connected
+    private boolean breakWitness(int size, int[] regions, int[] planted, int[] witness, SolutionCounter counter, Random random) {
+        List<int[]> moves = new ArrayList<>();
+        for (int row = 0; row < size; row++) {
+            int col = witness[row];
+            if (col == planted[row]) continue;
+
+            int cell = row * size + col;
+            int from = regions[cell];
+            int[][] neighbours = {{row - 1, col}, {row + 1, col}, {row, col - 1}, {row, col + 1}};
+            for (int[] n : neighbours) {
+                if (n[0] < 0 || n[0] >= size || n[1] < 0 || n[1] >= size) continue;
+                int to = regions[n[0] * size + n[1]];
+                if (to != from) moves.add(new int[]{cell, to});
+            }
+        }
+        if (moves.isEmpty()) return false;
+
+        int[] move = moves.get(random.nextInt(moves.size()));
+        for (int cell : cutOff(size, regions, planted, move[0])) {
+            regions[cell] = move[1];
+            counter.moveCell(cell / size, cell % size, move[1]);
+        }
+        return true;
+    }
+
+    //the cell plus every cell of its region that can only reach the region's planted queen through it.
+    //regions are numbered by the row of their planted queen (see BoardGenerator.growRegions)
+    private static List<Integer> cutOff(int size, int[] regions, int[] planted, int cell) {
+        int region = regions[cell];
+        int queen = region * size + planted[region];
+
+        boolean[] reached = new boolean[regions.length];
+        Deque<Integer> stack = new ArrayDeque<>();
+        stack.push(queen);
+        reached[queen] = true;
+        while (!stack.isEmpty()) {
+            int c = stack.pop();
+            int row = c / size;
+            int col = c % size;
+            int[] next = {row > 0 ? c - size : -1, row < size - 1 ? c + size : -1, col > 0 ? c - 1 : -1, col < size - 1 ? c + 1 : -1};
+            for (int nc : next) {
+                if (nc >= 0 && nc != cell && !reached[nc] && regions[nc] == region) {
+                    reached[nc] = true;
+                    stack.push(nc);
+                }
+            }
+        }
+
+        List<Integer> cells = new ArrayList<>();
+        for (int c = 0; c < regions.length; c++) {
+            if (regions[c] == region && !reached[c]) cells.add(c);
+        }
+        return cells;
+    }
+
+    private static int[] toRgb(int size, int[] regions, int[] palette) {
+        int[] rgb = new int[size * size];
+        for (int c = 0; c < rgb.length; c++) {
+            rgb[c] = palette[regions[c]];
+        }
+        return rgb;
+    }
+}
@@ -0,0 +1,197 @@
+package com.ArloDante.coloredqueens.generator;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import com.ArloDante.coloredqueens.objects.BoardView;
+
+//Counts the solutions of a board up to a limit (the generator only needs "1 or more than 1").
+//Rows are filled top to bottom with column and region bitmasks: a placed queen blocks its column, the cells
+//next to it in the following row and every cell of its region in the rows below. A branch is cut as soon as a
+//later row has no free cell left or a region that ends above the current row is still empty.
+//The per-row region masks are kept up to date by moveCell, so after the generator moves one cell to
+//another region the next count does not start from a rebuilt board. Boards up to 64x64 (masks are longs).
+public class SolutionCounter {
+    private int size;
+    private long full;
+    private int[] regions;
+    private long[][] regionCols; //[row][region] columns of the region in that row
+    private int[] maxRow;        //last row of every region
+    private long[] endsBy;       //[row] regions that have no cell below that row
+
+    private long[][] blocked;    //[depth][row] cells taken by regions placed above, one level per depth
+    private int[] queens;
+    private List<int[]> solutions = new ArrayList<>();
+    private int limit;
+    private int found;
+    private long nodes;
+
+    public SolutionCounter(int size, int[] regions) {
+        this(size, regions, null);
+    }
+
+    //straight from a board view, the region masks are copied from BoardView.getRegionColumns
+    //(an off-heap board hands over its stored masks, no cell scan)
+    public SolutionCounter(BoardView board) {
+        this(board.getSize(), regionsOf(board), board);
+    }
+
+    private SolutionCounter(int size, int[] regions, BoardView masks) {
+        if (size > 64) throw new IllegalArgumentException("Boards above 64x64 are not supported: " + size);
+
+        this.size = size;
+        this.full = (size == 64) ? -1L : (1L << size) - 1;
+        this.regions = regions.clone();
+        this.regionCols = new long[size][size];
+        this.maxRow = new int[size];
+        this.endsBy = new long[size];
+        this.blocked = new long[size + 1][size];
+        this.queens = new int[size];
+
+        if (masks != null) {
+            int regionCount = Math.min(size, masks.getRegionCount());
+            for (int r = 0; r < size; r++) {
+                for (int g = 0; g < regionCount; g++) {
+                    regionCols[r][g] = masks.getRegionColumns(g, r);
+                }
+            }
+        } else {
+            for (int c = 0; c < this.regions.length; c++) {
+                regionCols[c / size][this.regions[c]] |= 1L << (c % size);
+            }
+        }
+        for (int g = 0; g < size; g++) {
+            updateMaxRow(g);
+        }
+        updateEndsBy();
+    }
+
+    private static int[] regionsOf(BoardView board) {
+        int size = board.getSize();
+        if (size > 64) throw new IllegalArgumentException("Boards above 64x64 are not supported: " + size);
+
+        int[] regions = new int[size * size];
+        for (int c = 0; c < regions.length; c++) {
+            regions[c] = board.getRegion(c / size, c % size);
+        }
+        return regions;
+    }
+
+    //moves one cell to another region and updates the masks of the two regions involved
+    public void moveCell(int row, int col, int region) {
+        int old = regions[row * size + col];
+        if (old == region) return;
+
+        regions[row * size + col] = region;
+        regionCols[row][old] &= ~(1L << col);
+        regionCols[row][region] |= 1L << col;
+        updateMaxRow(old);
+        updateMaxRow(region);
+        updateEndsBy();
+    }
+
+    private void updateMaxRow(int region) {
+        int r = size - 1;
+        while (r > 0 && regionCols[r][region] == 0) r--;
+        maxRow[region] = r;
+    }
+
+    private void updateEndsBy() {
+        for (int r = 0; r < size; r++) {
+            endsBy[r] = 0;
+        }
+        for (int g = 0; g < size; g++) {
+            for (int r = maxRow[g]; r < size; r++) {
+                endsBy[r] |= 1L << g;
+            }
+        }
+    }
+
+    //number of solutions, counting stops at limit
+    public int count(int limit) {
+        this.limit = limit;
+        this.found = 0;
+        this.nodes = 0;
+        solutions.clear();
+        for (int r = 0; r < size; r++) {
+            blocked[0][r] = 0;
+        }
+
+        search(0, 0L, 0L, -1);
+        return found;
+    }
+
+    private boolean search(int row, long usedCols, long usedRegions, int prevCol) {
+        if (row == size) {
+            solutions.add(queens.clone());
+            return ++found >= limit;
+        }
+
+        long candidates = full & ~usedCols & ~blocked[row][row];
+        if (prevCol >= 0) {
+            long prev = 1L << prevCol;
+            candidates &= ~(prev | (prev << 1) | (prev >>> 1)); //no touching the queen above
+        }
+
+        long[] current = blocked[row];
+        long[] next = blocked[row + 1];
+        while (candidates != 0) {
+            long bit = candidates & -candidates;
+            candidates ^= bit;
+            int col = Long.numberOfTrailingZeros(bit);
+            int region = regions[row * size + col];
+            long regionsAfter = usedRegions | (1L << region);
+            nodes++;
+
+            //a region that has no cell below this row must have its queen by now
+            if ((endsBy[row] & ~regionsAfter) != 0) continue;
+
+            //block the region in the rows below and check every row still has a free cell
+            long colsAfter = usedCols | bit;
+            boolean dead = false;
+            for (int r = row + 1; r < size; r++) {
+                long b = current[r] | regionCols[r][region];
+                next[r] = b;
+                if ((full & ~colsAfter & ~b) == 0) {
+                    dead = true;
+                    break;
+                }
+            }
+            if (dead) continue;
+
+            queens[row] = col;
+            if (search(row + 1, colsAfter, regionsAfter, col)) return true;
+        }
+        return false;
+    }
+
+    //true if queens[row] = col is a solution of the current regions (for re-checking an old witness cheaply)
+    public boolean isSolution(int[] placement) {
+        long cols = 0;
+        long used = 0;
+        for (int r = 0; r < size; r++) {
+            int col = placement[r];
+            if (r > 0 && Math.abs(placement[r - 1] - col) < 2) return false;
+            cols |= 1L << col;
+            used |= 1L << regions[r * size + col];
+        }
+        return cols == full && used == full;
+    }
+
+    //the solutions found by the last count, queens[row] = column
+    public List<int[]> getSolutions() {
+        return solutions;
+    }
+
+    public long getNodes() {
+        return nodes;
+    }
+
+    public int getRegion(int row, int col) {
+        return regions[row * size + col];
+    }
+
+    public int getSize() {
+        return size;
+    }
+}
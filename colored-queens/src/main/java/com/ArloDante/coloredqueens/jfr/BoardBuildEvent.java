@@ -0,0 +1,33 @@
+package com.ArloDante.coloredqueens.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+//building the Board model (color regions) from the imported cells
+@Name("coloredqueens.BoardBuild")
+@Label("Board Build")
+@Category({"Colored Queens", "Board"})
+@StackTrace(false)
+public class BoardBuildEvent extends Event {
+    @Label("Size")
+    int size;
+
+    @Label("Level")
+    int level;
+
+    @Label("Engine")
+    String engine;
+
+    @Label("Colors")
+    int colors;
+
+    public void set(int size, int level, String engine, int colors) {
+        this.size = size;
+        this.level = level;
+        this.engine = engine;
+        this.colors = colors;
+    }
+}
@@ -0,0 +1,29 @@
+package com.ArloDante.coloredqueens.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+//reading and parsing one board file, before there is an engine or any counter
+@Name("coloredqueens.BoardImport")
+@Label("Board Import")
+@Category({"Colored Queens", "Board"})
+@StackTrace(false)
+public class BoardImportEvent extends Event {
+    @Label("Size")
+    int size;
+
+    @Label("Level")
+    int level;
+
+    @Label("Cells")
+    int cells;
+
+    public void set(int size, int level, int cells) {
+        this.size = size;
+        this.level = level;
+        this.cells = cells;
+    }
+}
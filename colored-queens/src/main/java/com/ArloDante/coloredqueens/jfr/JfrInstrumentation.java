@@ -0,0 +1,76 @@
+package com.ArloDante.coloredqueens.jfr;
+
+import jdk.jfr.EventType;
+
+import com.ArloDante.coloredqueens.solver.CountingInstrumentation;
+
+//Counts like CountingInstrumentation and turns the propagation and PSO iteration hooks into JFR events.
+//Only used while a recording has the search events enabled, otherwise the solvers keep NONE.
+public class JfrInstrumentation extends CountingInstrumentation {
+    private int size;
+    private int level;
+    private String engine;
+
+    private PropagationEvent propagation;
+    private PSOIterationEvent iteration;
+    private final CountingInstrumentation phaseStart = new CountingInstrumentation();
+
+    public JfrInstrumentation(int size, int level, String engine) {
+        this.size = size;
+        this.level = level;
+        this.engine = engine;
+    }
+
+    public static boolean isRecording() {
+        return EventType.getEventType(SearchEvent.class).isEnabled();
+    }
+
+    @Override
+    public void propagationStart() {
+        propagation = new PropagationEvent();
+        propagation.begin();
+        phaseStart.copyFrom(this);
+    }
+
+    @Override
+    public void propagationEnd() {
+        propagation.end();
+        if (propagation.shouldCommit()) {
+            propagation.setBoard(size, level, engine);
+            propagation.setCounters(this, phaseStart);
+            propagation.commit();
+        }
+        propagation = null;
+    }
+
+    @Override
+    public void iterationStart() {
+        iteration = new PSOIterationEvent();
+        iteration.begin();
+        phaseStart.copyFrom(this);
+    }
+
+    @Override
+    public void iterationEnd(int i) {
+        iteration.end();
+        if (iteration.shouldCommit()) {
+            iteration.setBoard(size, level, engine);
+            iteration.setCounters(this, phaseStart);
+            iteration.iteration = i;
+            iteration.commit();
+        }
+        iteration = null;
+    }
+
+    public int getSize() {
+        return size;
+    }
+
+    public int getLevel() {
+        return level;
+    }
+
+    public String getEngine() {
+        return engine;
+    }
+}
@@ -0,0 +1,11 @@
+package com.ArloDante.coloredqueens.jfr;
+
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+@Name("coloredqueens.PSOIteration")
+@Label("PSO Iteration")
+public class PSOIterationEvent extends SolverEvent {
+    @Label("Iteration")
+    int iteration;
+}
@@ -0,0 +1,14 @@
+package com.ArloDante.coloredqueens.jfr;
+
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.Threshold;
+
+//there is one pass per assignment, only the slow ones are recorded by default
+@Name("coloredqueens.Propagation")
+@Label("Propagation Pass")
+@Description("One AC-3 run over the queued arcs")
+@Threshold("1 ms")
+public class PropagationEvent extends SolverEvent {
+}
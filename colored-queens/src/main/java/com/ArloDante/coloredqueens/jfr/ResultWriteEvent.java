@@ -0,0 +1,25 @@
+package com.ArloDante.coloredqueens.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+//one batch of results written by the result sink, or one of the runner's text files
+@Name("coloredqueens.ResultWrite")
+@Label("Result Write")
+@Category({"Colored Queens", "Output"})
+@StackTrace(false)
+public class ResultWriteEvent extends Event {
+    @Label("Target")
+    String target;
+
+    @Label("Results")
+    int results;
+
+    public void set(String target, int results) {
+        this.target = target;
+        this.results = results;
+    }
+}
@@ -0,0 +1,19 @@
+package com.ArloDante.coloredqueens.jfr;
+
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+@Name("coloredqueens.Search")
+@Label("Search")
+@Description("One solve of a board by one engine")
+public class SearchEvent extends SolverEvent {
+    @Label("Solved")
+    boolean solved;
+
+    public void set(JfrInstrumentation instrumentation, boolean solved) {
+        setBoard(instrumentation.getSize(), instrumentation.getLevel(), instrumentation.getEngine());
+        setCounters(instrumentation, null);
+        this.solved = solved;
+    }
+}
@@ -0,0 +1,69 @@
+package com.ArloDante.coloredqueens.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.StackTrace;
+
+import com.ArloDante.coloredqueens.solver.CountingInstrumentation;
+
+//Common fields of the solver phase events, the counters are the ones of the phase itself
+@Category({"Colored Queens", "Solver"})
+@StackTrace(false)
+abstract class SolverEvent extends Event {
+    @Label("Size")
+    int size;
+
+    @Label("Level")
+    int level;
+
+    @Label("Engine")
+    String engine;
+
+    @Label("Nodes")
+    long nodes;
+
+    @Label("Validity Checks")
+    long validityChecks;
+
+    @Label("Prunes")
+    long prunes;
+
+    @Label("Revise Calls")
+    long revises;
+
+    @Label("Arc Enqueues")
+    long arcEnqueues;
+
+    @Label("Max Trail Depth")
+    int maxTrailDepth;
+
+    @Label("Fitness Evaluations")
+    long fitnessEvaluations;
+
+    void setBoard(int size, int level, String engine) {
+        this.size = size;
+        this.level = level;
+        this.engine = engine;
+    }
+
+    //counters now minus counters at the start of the phase (null for the whole solve)
+    void setCounters(CountingInstrumentation now, CountingInstrumentation start) {
+        nodes = now.getNodes();
+        validityChecks = now.getValidityChecks();
+        prunes = now.getPrunes();
+        revises = now.getRevises();
+        arcEnqueues = now.getArcEnqueues();
+        maxTrailDepth = now.getMaxTrailDepth();
+        fitnessEvaluations = now.getFitnessEvaluations();
+
+        if (start != null) {
+            nodes -= start.getNodes();
+            validityChecks -= start.getValidityChecks();
+            prunes -= start.getPrunes();
+            revises -= start.getRevises();
+            arcEnqueues -= start.getArcEnqueues();
+            fitnessEvaluations -= start.getFitnessEvaluations();
+        }
+    }
+}
@@ -0,0 +1,92 @@
+package com.ArloDante.coloredqueens.objects;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+//BoardView on plain arrays: one region id per cell (row by row) and one 0xRRGGBB color per region
+public class ArrayBoard implements BoardView {
+    private int size;
+    private int[] regions;
+    private int[] palette;
+
+    public ArrayBoard(int size, int[] regions, int[] palette) {
+        this.size = size;
+        this.regions = regions;
+        this.palette = palette;
+    }
+
+    //numbers the colors of a row-by-row rgb grid in order of first appearance
+    public static ArrayBoard fromRgb(int size, int[] rgbGrid) {
+        int[] regions = new int[size * size];
+        int[] palette = new int[16];
+        int regionCount = 0;
+        int last = -1;
+
+        for (int c = 0; c < rgbGrid.length; c++) {
+            int rgb = rgbGrid[c];
+
+            //neighbouring cells are mostly the same region, only search the palette on a change
+            int region = (last != -1 && palette[last] == rgb) ? last : -1;
+            for (int r = 0; region == -1 && r < regionCount; r++) {
+                if (palette[r] == rgb) region = r;
+            }
+            if (region == -1) {
+                if (regionCount == palette.length) palette = Arrays.copyOf(palette, palette.length * 2);
+                region = regionCount++;
+                palette[region] = rgb;
+            }
+
+            regions[c] = region;
+            last = region;
+        }
+
+        return new ArrayBoard(size, regions, Arrays.copyOf(palette, regionCount));
+    }
+
+    //copies any view (e.g. one on a mapped file) into plain arrays
+    public static ArrayBoard copyOf(BoardView view) {
+        if (view instanceof ArrayBoard) return (ArrayBoard) view;
+
+        int size = view.getSize();
+        int[] regions = new int[size * size];
+        for (int c = 0; c < regions.length; c++) {
+            regions[c] = view.getRegion(c / size, c % size);
+        }
+        int[] palette = new int[view.getRegionCount()];
+        for (int r = 0; r < palette.length; r++) {
+            palette[r] = view.getRegionRgb(r);
+        }
+        return new ArrayBoard(size, regions, palette);
+    }
+
+    @Override
+    public int getSize() {
+        return size;
+    }
+
+    @Override
+    public int getRegionCount() {
+        return palette.length;
+    }
+
+    @Override
+    public int getRegion(int row, int col) {
+        return regions[row * size + col];
+    }
+
+    @Override
+    public int getRegionRgb(int region) {
+        return palette[region];
+    }
+
+    @Override
+    public List<Cell> toCells() {
+        List<Cell> cells = new ArrayList<>(size * size);
+        for (int c = 0; c < regions.length; c++) {
+            int rgb = palette[regions[c]];
+            cells.add(new Cell(c / size, c % size, (rgb >> 16) & 0xFF, (rgb >> 8) & 0xFF, rgb & 0xFF));
+        }
+        return cells;
+    }
+}
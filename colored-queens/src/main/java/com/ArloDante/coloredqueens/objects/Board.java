@@ -8,10 +8,30 @@ public class Board {
     private int size;
     private Map<String, List<int[]>> colorMap = new HashMap<>();
     private Map<String, String> colorSymbolMap = new HashMap<>();
+    private List<String> colors;
 
     public Board(int size, List<Cell> cells) {
+        this(size, cells, RegionOrder.FIRST_CELL);
+    }
+
+    public Board(int size, List<Cell> cells, RegionOrder order) {
         this.size = size;
         buildColorMap(cells);
+        applyRegionOrder(order);
+    }
+
+    public Board(BoardView view) {
+        this(view.getSize(), view.toCells());
+    }
+
+    //urutan warna untuk solver, tidak bergantung pada urutan HashMap
+    public void setRegionOrder(RegionOrder order) {
+        applyRegionOrder(order);
+    }
+
+    //private so the constructor does not call an overridable method
+    private void applyRegionOrder(RegionOrder order) {
+        this.colors = Collections.unmodifiableList(order.order(colorMap, size));
         buildColorSymbols();
     }
 
@@ -26,8 +46,9 @@ public class Board {
 
     //menggunakan huruf (A,B,C,D, dst.) untuk memodelkan warna RGB yang unik
     private void buildColorSymbols() {
+        colorSymbolMap.clear();
         char symbol = 'A';
-        for (String color : colorMap.keySet()) {
+        for (String color : colors) {
             if (symbol == 'Q') {
                 symbol++;
             }
@@ -40,6 +61,11 @@ public class Board {
         return size;
     }
 
+    //color keys in region order, solvers index the regions by this list
+    public List<String> getColors() {
+        return colors;
+    }
+
     public Map<String, List<int[]>> getColorMap() {
         return colorMap;
     }
@@ -79,7 +105,7 @@ public class Board {
     //logging
     public void printColorSummary() {
         System.out.println("Board color distribution:");
-        for (String color : colorMap.keySet()) {
+        for (String color : colors) {
             String symbol = getSymbolForColor(color);
             System.out.printf("Color %s (%s) -> %d cells%n",
                     color, symbol, colorMap.get(color).size());
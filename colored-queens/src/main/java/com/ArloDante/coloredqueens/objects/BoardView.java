@@ -0,0 +1,29 @@
+package com.ArloDante.coloredqueens.objects;
+
+import java.util.List;
+
+//Read-only view of one board as region ids, independent of where the board is stored.
+//Region ids are 0..getRegionCount()-1, numbered in the order the regions first appear row by row.
+public interface BoardView {
+    int getSize();
+
+    int getRegionCount();
+
+    int getRegion(int row, int col);
+
+    //color of a region as 0xRRGGBB
+    int getRegionRgb(int region);
+
+    //the cells in the same form BoardImporter returns them, row by row
+    List<Cell> toCells();
+
+    //columns of the region in that row as a bitmask (bit c = column c), for boards up to 64x64.
+    //views that store the masks (OffHeapCorpus) return them as they are, the default scans the row
+    default long getRegionColumns(int region, int row) {
+        long cols = 0;
+        for (int col = 0; col < getSize(); col++) {
+            if (getRegion(row, col) == region) cols |= 1L << col;
+        }
+        return cols;
+    }
+}
@@ -0,0 +1,45 @@
+package com.ArloDante.coloredqueens.objects;
+
+import java.util.*;
+
+//Order in which the solvers take the color regions (Board.getColors()).
+//Every policy only looks at the cells, never at hash order, so a board is always searched the same way.
+public interface RegionOrder {
+    //colorMap: color key -> its cells, returns every color key once
+    List<String> order(Map<String, List<int[]>> colorMap, int size);
+
+    //by the first cell of the region, row by row (default)
+    RegionOrder FIRST_CELL = (colorMap, size) -> sorted(colorMap, Comparator.comparingInt(cells -> firstCell(cells, size)), size);
+
+    //fewest cells first (fail first), ties by first cell
+    RegionOrder SMALLEST_FIRST = (colorMap, size) -> sorted(colorMap,
+            Comparator.<List<int[]>>comparingInt(List::size).thenComparingInt(cells -> firstCell(cells, size)), size);
+
+    //most cells first, ties by first cell
+    RegionOrder LARGEST_FIRST = (colorMap, size) -> sorted(colorMap,
+            Comparator.<List<int[]>>comparingInt(cells -> -cells.size()).thenComparingInt(cells -> firstCell(cells, size)), size);
+
+    //for --region-order=NAME
+    static RegionOrder named(String name) {
+        switch (name.trim().toUpperCase()) {
+            case "FIRST_CELL": return FIRST_CELL;
+            case "SMALLEST_FIRST": return SMALLEST_FIRST;
+            case "LARGEST_FIRST": return LARGEST_FIRST;
+            default: throw new IllegalArgumentException("Unknown region order: " + name);
+        }
+    }
+
+    private static List<String> sorted(Map<String, List<int[]>> colorMap, Comparator<List<int[]>> byCells, int size) {
+        List<String> colors = new ArrayList<>(colorMap.keySet());
+        colors.sort(Comparator.comparing(colorMap::get, byCells));
+        return colors;
+    }
+
+    private static int firstCell(List<int[]> cells, int size) {
+        int first = Integer.MAX_VALUE;
+        for (int[] cell : cells) {
+            first = Math.min(first, cell[0] * size + cell[1]);
+        }
+        return first;
+    }
+}
@@ -0,0 +1,118 @@
+package com.ArloDante.coloredqueens.solver;
+
+//Counts every hook, one instance per solve (not thread-safe), merge() adds up several solves
+public class CountingInstrumentation implements SolverInstrumentation {
+    private long nodes;
+    private long validityChecks;
+    private long prunes;
+    private long revises;
+    private long arcEnqueues;
+    private int maxTrailDepth;
+    private long fitnessEvaluations;
+
+    public CountingInstrumentation() {
+    }
+
+    //counters restored from a checkpoint
+    public CountingInstrumentation(long nodes, long validityChecks, long prunes, long revises, long arcEnqueues,
+                                   int maxTrailDepth, long fitnessEvaluations) {
+        this.nodes = nodes;
+        this.validityChecks = validityChecks;
+        this.prunes = prunes;
+        this.revises = revises;
+        this.arcEnqueues = arcEnqueues;
+        this.maxTrailDepth = maxTrailDepth;
+        this.fitnessEvaluations = fitnessEvaluations;
+    }
+
+    @Override
+    public void node() {
+        nodes++;
+    }
+
+    @Override
+    public void validityCheck() {
+        validityChecks++;
+    }
+
+    @Override
+    public void prune() {
+        prunes++;
+    }
+
+    @Override
+    public void revise() {
+        revises++;
+    }
+
+    @Override
+    public void arcEnqueue() {
+        arcEnqueues++;
+    }
+
+    @Override
+    public void trail(int depth) {
+        if (depth > maxTrailDepth) maxTrailDepth = depth;
+    }
+
+    @Override
+    public void fitnessEvaluation() {
+        fitnessEvaluations++;
+    }
+
+    public void merge(CountingInstrumentation other) {
+        nodes += other.nodes;
+        validityChecks += other.validityChecks;
+        prunes += other.prunes;
+        revises += other.revises;
+        arcEnqueues += other.arcEnqueues;
+        maxTrailDepth = Math.max(maxTrailDepth, other.maxTrailDepth);
+        fitnessEvaluations += other.fitnessEvaluations;
+    }
+
+    //overwrites every counter, for snapshots at the start of a phase
+    public void copyFrom(CountingInstrumentation other) {
+        nodes = other.nodes;
+        validityChecks = other.validityChecks;
+        prunes = other.prunes;
+        revises = other.revises;
+        arcEnqueues = other.arcEnqueues;
+        maxTrailDepth = other.maxTrailDepth;
+        fitnessEvaluations = other.fitnessEvaluations;
+    }
+
+    public long getNodes() {
+        return nodes;
+    }
+
+    public long getValidityChecks() {
+        return validityChecks;
+    }
+
+    public long getPrunes() {
+        return prunes;
+    }
+
+    public long getRevises() {
+        return revises;
+    }
+
+    public long getArcEnqueues() {
+        return arcEnqueues;
+    }
+
+    public int getMaxTrailDepth() {
+        return maxTrailDepth;
+    }
+
+    public long getFitnessEvaluations() {
+        return fitnessEvaluations;
+    }
+
+    @Override
+    public String toString() {
+        return "nodes = " + nodes + ", checks = " + validityChecks + ", prunes = " + prunes
+                + ", revises = " + revises + ", enqueues = " + arcEnqueues
+                + ", max trail = " + maxTrailDepth + ", evaluations = " + fitnessEvaluations;
+    }
+}
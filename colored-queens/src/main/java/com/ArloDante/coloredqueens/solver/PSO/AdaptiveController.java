@@ -0,0 +1,77 @@
+package com.ArloDante.coloredqueens.solver.PSO;
+
+//On-line control of inertia, c1, c2 and the number of active particles for the adaptive PSO mode.
+//The coefficients follow the improvement rate of the swarm (exploit while improving, explore while stuck)
+//and the swarm is grown when it stagnates and shrunk again while it keeps improving.
+class AdaptiveController {
+    private static final double INERTIA_MIN = 0.4;
+    private static final double INERTIA_MAX = 0.9;
+    private static final double C_MIN = 0.5;
+    private static final double C_MAX = 2.0;
+
+    private static final double RATE_SMOOTHING = 0.1; //weight of the newest iteration in the improvement rate
+    private static final double COLLAPSED_DIVERSITY = 0.05; //below this the swarm has converged onto its nBests
+    private static final int STAGNATION_STEPS = 5; //grow this many times before maxStagnation is reached
+
+    private double inertia;
+    private double c1;
+    private double c2;
+    private double improvementRate;
+
+    private int minActive;
+    private int maxActive;
+    private int stagnationWindow;
+
+    public AdaptiveController(double inertia, double c1, double c2, int minActive, int maxActive, int maxStagnation) {
+        this.inertia = inertia;
+        this.c1 = c1;
+        this.c2 = c2;
+        this.improvementRate = 0.5;
+
+        this.minActive = minActive;
+        this.maxActive = maxActive;
+        this.stagnationWindow = Math.max(1, maxStagnation / STAGNATION_STEPS);
+    }
+
+    //diversity is the fraction of dimensions where a particle differs from its nBest
+    public void update(boolean improved, double diversity) {
+        improvementRate = (1 - RATE_SMOOTHING) * improvementRate + RATE_SMOOTHING * (improved ? 1.0 : 0.0);
+
+        //improving -> low inertia and strong pull to nBest, stuck -> high inertia and strong pull to pBest
+        inertia = INERTIA_MAX - (INERTIA_MAX - INERTIA_MIN) * improvementRate;
+        c1 = C_MAX - (C_MAX - C_MIN) * improvementRate;
+        c2 = C_MIN + (C_MAX - C_MIN) * improvementRate;
+
+        if (diversity < COLLAPSED_DIVERSITY) {
+            inertia = INERTIA_MAX;
+            c2 = C_MIN;
+        }
+    }
+
+    //returns the new number of active particles
+    public int resize(int active, boolean improved, int stagnation) {
+        if (stagnation > 0 && stagnation % stagnationWindow == 0) {
+            return Math.min(maxActive, active * 2);
+        }
+        if (improved && improvementRate > 0.5) {
+            return Math.max(minActive, active - active / 10);
+        }
+        return active;
+    }
+
+    public int initialActive() {
+        return Math.max(minActive, maxActive / 4);
+    }
+
+    public double getInertia() {
+        return inertia;
+    }
+
+    public double getC1() {
+        return c1;
+    }
+
+    public double getC2() {
+        return c2;
+    }
+}
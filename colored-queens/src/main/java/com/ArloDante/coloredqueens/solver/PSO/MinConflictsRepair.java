@@ -0,0 +1,190 @@
+package com.ArloDante.coloredqueens.solver.PSO;
+
+import java.util.*;
+
+//bounded min-conflicts local search used to repair neighborhood bests that are almost valid (memetic PSO)
+class MinConflictsRepair {
+    private int nColors;
+    private int[][][] cells; //cells[colorIdx][cellIdx] = {row, col}
+    private int[][] domains; //cell indexes a queen is allowed to move to
+
+    private double w1;
+    private double w2;
+    private int maxSteps;
+    private Random random;
+
+    //scratch buffers, reused between calls
+    private int[] attacking;
+    private int[] adjacent;
+    private int[] conflicted;
+    private int[] ties;
+
+    //domains can be null to allow every cell of the color
+    public MinConflictsRepair(List<String> colors, Map<String, List<int[]>> colorCells, int[][] domains, double w1, double w2, int maxSteps, Random random) {
+        this.nColors = colors.size();
+        this.cells = new int[nColors][][];
+        this.domains = new int[nColors][];
+
+        for (int i = 0; i < nColors; i++) {
+            List<int[]> list = colorCells.get(colors.get(i));
+            this.cells[i] = list.toArray(new int[0][]);
+
+            if (domains != null) {
+                this.domains[i] = domains[i];
+            } else {
+                this.domains[i] = new int[list.size()];
+                for (int idx = 0; idx < list.size(); idx++) {
+                    this.domains[i][idx] = idx;
+                }
+            }
+        }
+
+        this.w1 = w1;
+        this.w2 = w2;
+        this.maxSteps = maxSteps;
+        this.random = random;
+
+        this.attacking = new int[nColors];
+        this.adjacent = new int[nColors];
+        this.conflicted = new int[nColors];
+        this.ties = new int[0];
+    }
+
+    //repairs the candidate in place and returns its fitness, the candidate is only changed if the fitness improved
+    public double repair(int[] candidate) {
+        int[] current = candidate.clone();
+
+        Arrays.fill(attacking, 0);
+        Arrays.fill(adjacent, 0);
+
+        int totalAttacking = 0;
+        int totalAdjacent = 0;
+
+        for (int i = 0; i < nColors; i++) {
+            int[] a = cells[i][current[i]];
+            for (int j = i + 1; j < nColors; j++) {
+                int[] b = cells[j][current[j]];
+                if (attacks(a, b)) {
+                    attacking[i]++;
+                    attacking[j]++;
+                    totalAttacking++;
+                }
+                if (touches(a, b)) {
+                    adjacent[i]++;
+                    adjacent[j]++;
+                    totalAdjacent++;
+                }
+            }
+        }
+
+        double startFitness = w1 * totalAttacking + w2 * totalAdjacent;
+        double bestFitness = startFitness;
+        int[] best = current.clone();
+
+        for (int step = 0; step < maxSteps && bestFitness > 0; step++) {
+            //pick a random queen that is still in conflict
+            int nConflicted = 0;
+            for (int i = 0; i < nColors; i++) {
+                if (attacking[i] + adjacent[i] > 0) {
+                    conflicted[nConflicted++] = i;
+                }
+            }
+            if (nConflicted == 0) break;
+
+            int color = conflicted[random.nextInt(nConflicted)];
+            int[][] domain = cells[color];
+            int[] allowed = domains[color];
+
+            //move it to the allowed cell of its color with the least conflicts, ties broken randomly
+            if (ties.length < allowed.length) ties = new int[allowed.length];
+            int nTies = 0;
+            double minCost = Double.MAX_VALUE;
+
+            for (int idx : allowed) {
+                double cost = w1 * countAttacking(domain[idx], color, current) + w2 * countAdjacent(domain[idx], color, current);
+                if (cost < minCost) {
+                    minCost = cost;
+                    nTies = 0;
+                }
+                if (cost == minCost) {
+                    ties[nTies++] = idx;
+                }
+            }
+
+            int newIdx = ties[random.nextInt(nTies)];
+            int oldIdx = current[color];
+            if (newIdx == oldIdx) continue;
+
+            int[] oldCell = domain[oldIdx];
+            int[] newCell = domain[newIdx];
+
+            for (int j = 0; j < nColors; j++) {
+                if (j == color) continue;
+                int[] other = cells[j][current[j]];
+
+                if (attacks(oldCell, other)) {
+                    attacking[j]--;
+                    totalAttacking--;
+                }
+                if (touches(oldCell, other)) {
+                    adjacent[j]--;
+                    totalAdjacent--;
+                }
+                if (attacks(newCell, other)) {
+                    attacking[j]++;
+                    totalAttacking++;
+                }
+                if (touches(newCell, other)) {
+                    adjacent[j]++;
+                    totalAdjacent++;
+                }
+            }
+
+            current[color] = newIdx;
+            attacking[color] = countAttacking(newCell, color, current);
+            adjacent[color] = countAdjacent(newCell, color, current);
+
+            double fitness = w1 * totalAttacking + w2 * totalAdjacent;
+            if (fitness < bestFitness) {
+                bestFitness = fitness;
+                System.arraycopy(current, 0, best, 0, nColors);
+            }
+        }
+
+        if (bestFitness < startFitness) {
+            System.arraycopy(best, 0, candidate, 0, nColors);
+        }
+
+        return bestFitness;
+    }
+
+    private int countAttacking(int[] cell, int color, int[] positions) {
+        int count = 0;
+        for (int j = 0; j < nColors; j++) {
+            if (j != color && attacks(cell, cells[j][positions[j]])) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    private int countAdjacent(int[] cell, int color, int[] positions) {
+        int count = 0;
+        for (int j = 0; j < nColors; j++) {
+            if (j != color && touches(cell, cells[j][positions[j]])) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    //same row or column, matches calculateAttackingViolation
+    private boolean attacks(int[] a, int[] b) {
+        return a[0] == b[0] || a[1] == b[1];
+    }
+
+    //one of the 8 neighbours, matches calculateAdjacencyViolation
+    private boolean touches(int[] a, int[] b) {
+        return Math.abs(a[0] - b[0]) <= 1 && Math.abs(a[1] - b[1]) <= 1;
+    }
+}
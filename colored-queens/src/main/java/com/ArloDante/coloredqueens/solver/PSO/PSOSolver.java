@@ -5,62 +5,8 @@ import java.util.stream.Collectors;
 import java.util.stream.IntStream;
 
 import com.ArloDante.coloredqueens.objects.Board;
-
-class Particle {
-    private int[] candidate;
-    private double[] velocity;
-    private double fitness;
-    private int[] pBest;
-    private double pBestFitness;
-    
-    public Particle(int[] candidate, double[] velocity) {
-        this.candidate = candidate;
-        this.velocity = velocity;
-        this.pBest = candidate.clone();
-        this.pBestFitness = Double.MAX_VALUE;
-    }
-
-    public int[] getCandidate() {
-        return candidate;
-    }
-
-    public void setCandidate(int[] candidate) {
-        this.candidate = candidate;
-    }
-
-    public double[] getVelocity() {
-        return velocity;
-    }
-
-    public void setVelocity(double[] velocity) {
-        this.velocity = velocity;
-    }
-
-    public double getFitness() {
-        return fitness;
-    }
-
-    public void setFitness(double fitness) {
-        this.fitness = fitness;
-    }
-
-    public int[] getPBest() {
-        return pBest;
-    }
-
-    public void setPBest(int[] pBest) {
-        this.pBest = pBest;
-    }
-
-    public double getPBestFitness() {
-        return pBestFitness;
-    }
-
-    public void setPBestFitness(double pBestFitness) {
-        this.pBestFitness = pBestFitness;
-    }
-
-}
+import com.ArloDante.coloredqueens.solver.SolverInstrumentation;
+import com.ArloDante.coloredqueens.solver.backtracking.BacktrackingSolverAC3;
 
 public class PSOSolver {
     private Board board;
@@ -85,15 +31,40 @@ public class PSOSolver {
     private double w2;
     
     private Random random;
+    private SolverInstrumentation instrumentation = SolverInstrumentation.NONE;
 
     private int maxStagnation;
+
+    //optional memetic repair of the neighborhood bests, disabled when repairSteps = 0
+    private int repairSteps;
+    private MinConflictsRepair repair;
+    private long repairTime;
+
+    //optional AC-3 pruned domains used to sample positions, null when every cell of a color is allowed
+    private boolean prunedInitialization;
+    private int[][] domains;
+
+    //optional per-iteration telemetry, the fitness sums are filled by updateParticles
+    private PSOTelemetry telemetry;
+    private double fitnessSum;
+    private double fitnessSumSq;
+
+    //optional adaptive control of inertia, c1, c2 and the swarm size
+    private boolean adaptiveMode;
+    private AdaptiveController adaptive;
+    private int[] activeCount; //leading particles of each neighborhood that take part in the search
+    private int activeParticles;
+    private double positionDiversity;
+    private long evaluations;
+
+    private boolean verbose;
     
     public PSOSolver(Board board, int nIterations, int nParticles, double c1, double c2, int nNeighborhood, double inertia, double w1, double w2, int maxStagnation) {
         this.board = board;
         this.size = this.board.getSize();
         
         this.colorCells = this.board.getColorMap();
-        this.colors = new ArrayList<>(this.colorCells.keySet());
+        this.colors = new ArrayList<>(this.board.getColors());
 
         this.solution = new int[colors.size()];
         Arrays.fill(solution, -1);
@@ -118,6 +89,40 @@ public class PSOSolver {
         this.random = new Random();
 
         this.maxStagnation = maxStagnation;
+        this.verbose = true;
+    }
+
+    //enable the min-conflicts repair of every neighborhood best after each iteration
+    public void setRepairSteps(int repairSteps) {
+        this.repairSteps = repairSteps;
+    }
+
+    //sample the swarm only from the domains left after one AC-3 pass over the empty board
+    public void setPrunedInitialization(boolean prunedInitialization) {
+        this.prunedInitialization = prunedInitialization;
+    }
+
+    public void setTelemetry(PSOTelemetry telemetry) {
+        this.telemetry = telemetry;
+    }
+
+    //benchmarks switch the console output off
+    public void setVerbose(boolean verbose) {
+        this.verbose = verbose;
+    }
+
+    //fixed seed so a run can be repeated exactly
+    public void setSeed(long seed) {
+        this.random = new Random(seed);
+    }
+
+    public void setInstrumentation(SolverInstrumentation instrumentation) {
+        this.instrumentation = instrumentation;
+    }
+
+    //adjust inertia, c1, c2 and the number of active particles on-line instead of using fixed values
+    public void setAdaptive(boolean adaptiveMode) {
+        this.adaptiveMode = adaptiveMode;
     }
 
     private void generateParticles() {
@@ -132,6 +137,13 @@ public class PSOSolver {
     private int[] generatePossibleSolution() {
         int[] newSolution = new int[this.colors.size()];
 
+        if (this.domains != null) {
+            for (int i = 0; i < this.domains.length; i++) {
+                newSolution[i] = this.domains[i][random.nextInt(this.domains[i].length)];
+            }
+            return newSolution;
+        }
+
         int idx = 0;
         for (String s : this.colors) {
             int domain = colorCells.get(s).size();
@@ -143,6 +155,21 @@ public class PSOSolver {
         return newSolution;
     }
 
+    //returns null if propagation wipes out a domain (no solution), so sampling falls back to the full regions
+    private int[][] propagateDomains() {
+        BacktrackingSolverAC3 ac3 = new BacktrackingSolverAC3(this.board);
+        ac3.setInstrumentation(this.instrumentation);
+        Map<String, BitSet> pruned = ac3.propagateInitialDomains();
+        int[][] result = new int[this.colors.size()][];
+
+        for (int i = 0; i < this.colors.size(); i++) {
+            BitSet valid = pruned.get(this.colors.get(i));
+            if (valid.isEmpty()) return null;
+            result[i] = valid.stream().toArray();
+        }
+        return result;
+    }
+
     private double[] generateRandomVelocity() {
         double[] newVelocity = new double[this.colors.size()];
 
@@ -153,16 +180,28 @@ public class PSOSolver {
         return newVelocity;
     }
 
-    private void initialize() {
+    //initialize, calculateFitness, updateVelocity and updateParticles are package-private for the kernel benchmarks
+    void initialize() {
+
+        //0. optionally shrink the domains with constraint propagation
+        if (this.prunedInitialization) {
+            this.domains = propagateDomains();
+        }
         
         //1. generate the initial particles
         this.generateParticles();
 
         //2. separate into neighborhoods
         this.generateNeighborhoods();
+        this.initializeActiveParticles();
 
         //3. intial fitness calculation
         this.calculateInitialFitness();
+
+        //4. optional local search for the neighborhood bests
+        if (this.repairSteps > 0) {
+            this.repair = new MinConflictsRepair(this.colors, this.colorCells, this.domains, this.w1, this.w2, this.repairSteps, this.random);
+        }
     }
 
     private void generateNeighborhoods() {
@@ -172,7 +211,7 @@ public class PSOSolver {
 
         List<Integer> indexes = IntStream.range(0, nParticles).boxed().collect(Collectors.toList());
         
-        Collections.shuffle(indexes);
+        Collections.shuffle(indexes, random);
 
         this.neighborhoods = partitionList(indexes, nNeighborhood);
     }
@@ -203,12 +242,41 @@ public class PSOSolver {
         return result;
     }
 
+    private void initializeActiveParticles() {
+        this.activeCount = new int[this.nNeighborhood];
+
+        if (this.adaptiveMode) {
+            int minActive = Math.min(this.nParticles, 2 * this.nNeighborhood);
+            this.adaptive = new AdaptiveController(this.inertia, this.c1, this.c2, minActive, this.nParticles, this.maxStagnation);
+            distributeActive(this.adaptive.initialActive());
+        } else {
+            for (int i = 0; i < this.nNeighborhood; i++) {
+                this.activeCount[i] = this.neighborhoods.get(i).size();
+            }
+            this.activeParticles = this.nParticles;
+        }
+    }
+
+    //split the active particles over the neighborhoods proportionally to their size
+    private void distributeActive(int total) {
+        this.activeParticles = 0;
+
+        for (int i = 0; i < this.nNeighborhood; i++) {
+            int groupSize = this.neighborhoods.get(i).size();
+            int target = (int) Math.round((double) groupSize * total / this.nParticles);
+            this.activeCount[i] = Math.max(Math.min(target, groupSize), Math.min(1, groupSize));
+            this.activeParticles += this.activeCount[i];
+        }
+    }
+
     private void calculateInitialFitness() {
         for (int i = 0; i < this.nNeighborhood; i++) {
             int curNBestIdx = -1;
             double curNBestFitness = Double.MAX_VALUE;
+            List<Integer> members = this.neighborhoods.get(i);
             
-            for (int index : this.neighborhoods.get(i)) {
+            for (int k = 0; k < this.activeCount[i]; k++) {
+                int index = members.get(k);
                 Particle p = this.particles.get(index);
                 double fitness = calculateFitness(p);
                 p.setFitness(fitness);
@@ -224,7 +292,10 @@ public class PSOSolver {
         }
     }
 
-    private double calculateFitness(Particle candidate) {
+    double calculateFitness(Particle candidate) {
+        this.evaluations++;
+        this.instrumentation.fitnessEvaluation();
+
         boolean[][] occupied = new boolean[this.size][this.size];
 
         int[] positions = candidate.getCandidate();
@@ -304,11 +375,14 @@ public class PSOSolver {
     }
 
     public void solve() {
-        System.out.println("Starting PSO solver for " + size + "x" + size + " board with " + colors.size() + " colors.");
-        System.out.println("Parameters: iterations=" + nIterations + ", particles=" + nParticles + 
-                         ", neighborhoods=" + nNeighborhood + ", c1=" + c1 + ", c2=" + c2 + 
-                         ", inertia=" + inertia + ", w1=" + w1 + ", w2=" + w2 +
-                         ", maxStagnation=" + maxStagnation);
+        if (verbose) {
+            System.out.println("Starting PSO solver for " + size + "x" + size + " board with " + colors.size() + " colors.");
+            System.out.println("Parameters: iterations=" + nIterations + ", particles=" + nParticles + 
+                             ", neighborhoods=" + nNeighborhood + ", c1=" + c1 + ", c2=" + c2 + 
+                             ", inertia=" + inertia + ", w1=" + w1 + ", w2=" + w2 +
+                             ", maxStagnation=" + maxStagnation + ", repairSteps=" + repairSteps +
+                             ", adaptive=" + adaptiveMode);
+        }
         
         long startTime = System.currentTimeMillis();
         
@@ -320,18 +394,26 @@ public class PSOSolver {
         int stagnationCounter = 0;
 
         for (int i = 1; i <= this.nIterations; i++) {
+            long iterationStart = (this.telemetry != null) ? System.nanoTime() : 0;
+            this.instrumentation.iterationStart();
+
             //update the velocity
             updateVelocity();
 
             //update particles and their fitness
             updateParticles();
+            this.instrumentation.iterationEnd(i);
 
             //check if solution exists
             if (checkNbest() != -1) {
+                if (this.telemetry != null) recordTelemetry(i, stagnationCounter, iterationStart);
                 long endTime = System.currentTimeMillis();
-                System.out.println("\nSolution found at iteration " + i);
-                System.out.println("Time: " + (endTime - startTime) + " ms");
-                printSolution(checkNbest());
+                if (verbose) {
+                    System.out.println("\nSolution found at iteration " + i);
+                    System.out.println("Time: " + (endTime - startTime) + " ms");
+                    printRunStats();
+                    printSolution(checkNbest());
+                }
                 return;
             }
 
@@ -344,19 +426,48 @@ public class PSOSolver {
                 stagnationCounter++;
             }
 
+            if (this.telemetry != null) recordTelemetry(i, stagnationCounter, iterationStart);
+
+            if (this.adaptive != null) adapt(stagnationCounter);
+
             if (stagnationCounter >= maxStagnation) {
                 long endTime = System.currentTimeMillis();
-                System.out.println("\nEarly termination: no improvement for " + maxStagnation + " iterations");
-                System.out.println("Time: " + (endTime - startTime) + " ms");
-                printSolution(checkLowestNBest());
+                if (verbose) {
+                    System.out.println("\nEarly termination: no improvement for " + maxStagnation + " iterations");
+                    System.out.println("Time: " + (endTime - startTime) + " ms");
+                    printRunStats();
+                    printSolution(checkLowestNBest());
+                }
                 return;
             }
         }
 
         long endTime = System.currentTimeMillis();
-        System.out.println("\nNo perfect solution found after " + nIterations + " iterations");
-        System.out.println("Time: " + (endTime - startTime) + " ms");
-        printSolution(checkLowestNBest());
+        if (verbose) {
+            System.out.println("\nNo perfect solution found after " + nIterations + " iterations");
+            System.out.println("Time: " + (endTime - startTime) + " ms");
+            printRunStats();
+            printSolution(checkLowestNBest());
+        }
+    }
+
+    private void printRunStats() {
+        if (this.repair != null) {
+            System.out.println("Repair time: " + (this.repairTime / 1_000_000) + " ms");
+        }
+        System.out.println("Fitness evaluations: " + this.evaluations);
+        if (this.adaptive != null) {
+            System.out.printf("Adaptive state: inertia=%.3f, c1=%.3f, c2=%.3f, active particles=%d%n",
+                    this.inertia, this.c1, this.c2, this.activeParticles);
+        }
+    }
+
+    //best, mean and standard deviation of the swarm fitness for this iteration
+    private void recordTelemetry(int iteration, int stagnation, long iterationStart) {
+        double mean = this.fitnessSum / this.activeParticles;
+        double variance = Math.max(0.0, this.fitnessSumSq / this.activeParticles - mean * mean);
+
+        this.telemetry.record(iteration, getLowestNBestFitness(), mean, Math.sqrt(variance), stagnation, System.nanoTime() - iterationStart);
     }
 
     private double getLowestNBestFitness() {
@@ -397,14 +508,19 @@ public class PSOSolver {
         return solution;
     }
 
-    private void updateParticles() {
+    void updateParticles() {
+        this.fitnessSum = 0;
+        this.fitnessSumSq = 0;
+
         for (int i = 0; i < this.nNeighborhood; i++) {
             int nBestIdx = this.nBests[i];
             int[] nBestPosition = this.particles.get(nBestIdx).getCandidate();
             
             double curNBestFitness = this.particles.get(nBestIdx).getFitness();
+            List<Integer> members = this.neighborhoods.get(i);
             
-            for (int particleIdx : this.neighborhoods.get(i)) {
+            for (int k = 0; k < this.activeCount[i]; k++) {
+                int particleIdx = members.get(k);
                 Particle p = this.particles.get(particleIdx);
                 int[] currentPosition = p.getCandidate();
                 double[] velocity = p.getVelocity();
@@ -422,6 +538,8 @@ public class PSOSolver {
                 
                 double newFitness = calculateFitness(p);
                 p.setFitness(newFitness);
+                this.fitnessSum += newFitness;
+                this.fitnessSumSq += newFitness * newFitness;
                 
                 if (newFitness < p.getPBestFitness()) {
                     p.setPBestFitness(newFitness);
@@ -434,14 +552,47 @@ public class PSOSolver {
                 }
             }
         }
+
+        if (this.repair != null) {
+            repairNBests();
+        }
     }
 
-    private void updateVelocity() {
+    //run the local search on every neighborhood best and write improvements back into the particle and its pBest
+    private void repairNBests() {
+        long start = System.nanoTime();
+
+        for (int i = 0; i < this.nNeighborhood; i++) {
+            Particle p = this.particles.get(this.nBests[i]);
+            if (p.getFitness() == 0) continue;
+
+            int[] candidate = p.getCandidate().clone();
+            double repairedFitness = this.repair.repair(candidate);
+
+            if (repairedFitness < p.getFitness()) {
+                p.setCandidate(candidate);
+                p.setFitness(repairedFitness);
+
+                if (repairedFitness < p.getPBestFitness()) {
+                    p.setPBestFitness(repairedFitness);
+                    p.setPBest(candidate.clone());
+                }
+            }
+        }
+
+        this.repairTime += System.nanoTime() - start;
+    }
+
+    void updateVelocity() {
+        long nBestDiffCount = 0;
+
         for (int i = 0; i < this.nNeighborhood; i++) {
             int nBestIdx = this.nBests[i];
             int[] nBestPosition = this.particles.get(nBestIdx).getCandidate();
+            List<Integer> members = this.neighborhoods.get(i);
             
-            for (int particleIdx : this.neighborhoods.get(i)) {
+            for (int k = 0; k < this.activeCount[i]; k++) {
+                int particleIdx = members.get(k);
                 Particle p = this.particles.get(particleIdx);
                 int[] currentPosition = p.getCandidate();
                 int[] pBestPosition = p.getPBest();
@@ -454,6 +605,7 @@ public class PSOSolver {
                     
                     int pBestDiff = (currentPosition[j] != pBestPosition[j]) ? 1 : 0;
                     int nBestDiff = (currentPosition[j] != nBestPosition[j]) ? 1 : 0;
+                    nBestDiffCount += nBestDiff;
                     
                     newVelocity[j] = this.inertia * velocity[j] + this.c1 * r1 * pBestDiff + this.c2 * r2 * nBestDiff;
                     
@@ -464,6 +616,65 @@ public class PSOSolver {
                 p.setVelocity(newVelocity);
             }
         }
+
+        this.positionDiversity = (double) nBestDiffCount / ((long) this.activeParticles * this.colors.size());
+    }
+
+    private void adapt(int stagnation) {
+        boolean improved = (stagnation == 0);
+
+        this.adaptive.update(improved, this.positionDiversity);
+        this.inertia = this.adaptive.getInertia();
+        this.c1 = this.adaptive.getC1();
+        this.c2 = this.adaptive.getC2();
+
+        int newActive = this.adaptive.resize(this.activeParticles, improved, stagnation);
+        if (newActive != this.activeParticles) {
+            resizeSwarm(newActive);
+        }
+    }
+
+    //newly activated particles are re-seeded, deactivated ones simply stop moving
+    private void resizeSwarm(int newActive) {
+        int[] previous = this.activeCount.clone();
+        distributeActive(newActive);
+
+        for (int i = 0; i < this.nNeighborhood; i++) {
+            List<Integer> members = this.neighborhoods.get(i);
+
+            for (int k = previous[i]; k < this.activeCount[i]; k++) {
+                Particle p = this.particles.get(members.get(k));
+                p.setCandidate(generatePossibleSolution());
+                p.setVelocity(generateRandomVelocity());
+
+                double fitness = calculateFitness(p);
+                p.setFitness(fitness);
+                p.setPBestFitness(fitness);
+                p.setPBest(p.getCandidate().clone());
+
+                if (fitness < this.particles.get(this.nBests[i]).getFitness()) {
+                    this.nBests[i] = members.get(k);
+                }
+            }
+
+            //keep the nBest inside the active part of the neighborhood
+            int nBestPos = members.indexOf(this.nBests[i]);
+            if (nBestPos >= this.activeCount[i]) {
+                Collections.swap(members, nBestPos, 0);
+            }
+        }
+    }
+
+    public long getEvaluations() {
+        return this.evaluations;
+    }
+
+    public boolean isValid() {
+        return checkNbest() != -1;
+    }
+
+    Particle getParticle(int index) {
+        return this.particles.get(index);
     }
 
     private void printBoard(boolean[][] occupied) {
@@ -0,0 +1,467 @@
+package com.ArloDante.coloredqueens.solver.PSO;
+
+import java.util.*;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import com.ArloDante.coloredqueens.objects.Board;
+import com.ArloDante.coloredqueens.solver.SolverInstrumentation;
+
+//Discrete PSO where a particle is a permutation row -> column, so row and column constraints always hold.
+//The velocity is a list of swaps and the fitness only counts color (region) and adjacency violations.
+public class PSOSolverPermutation {
+
+    private static class PermutationParticle {
+        int[] position;
+        int[] velocity; //swap pairs stored flat: (velocity[2k], velocity[2k+1])
+        int velocityLength; //number of swaps
+        double fitness;
+        int[] pBest;
+        double pBestFitness;
+
+        PermutationParticle(int[] position) {
+            this.position = position;
+            this.velocity = new int[0];
+            this.velocityLength = 0;
+            this.pBest = position.clone();
+            this.pBestFitness = Double.MAX_VALUE;
+        }
+    }
+
+    private Board board;
+    private int size;
+    private Map<String, List<int[]>> colorCells;
+    private List<String> colors;
+    private int[][] regionOf; //regionOf[row][col] = index in colors
+
+    private int nIterations;
+    private int nParticles;
+    private List<PermutationParticle> particles;
+
+    private int nNeighborhood;
+    private List<List<Integer>> neighborhoods;
+    private int[] nBests;
+
+    private double c1;
+    private double c2;
+    private double inertia;
+
+    private double w1; //weight of color violations
+    private double w2; //weight of adjacency violations
+
+    private int maxStagnation;
+    private int maxVelocity;
+
+    private Random random;
+    private SolverInstrumentation instrumentation = SolverInstrumentation.NONE;
+    private boolean verbose;
+
+    private long executionTimeNanos;
+    private long evaluations;
+    private int finalRegionViolations;
+    private int finalAdjacencyViolations;
+
+    //scratch buffers for the swap operators
+    private int[] regionCount;
+    private int[] swapBuffer;
+    private int[] diffBuffer;
+    private int[] diffCopy;
+    private int[] diffWhere;
+
+    public PSOSolverPermutation(Board board, int nIterations, int nParticles, double c1, double c2, int nNeighborhood, double inertia, double w1, double w2, int maxStagnation) {
+        this.board = board;
+        this.size = this.board.getSize();
+
+        this.colorCells = this.board.getColorMap();
+        this.colors = new ArrayList<>(this.board.getColors());
+
+        this.regionOf = new int[size][size];
+        for (int i = 0; i < colors.size(); i++) {
+            for (int[] cell : colorCells.get(colors.get(i))) {
+                regionOf[cell[0]][cell[1]] = i;
+            }
+        }
+
+        this.nIterations = nIterations;
+        this.nParticles = nParticles;
+        this.nNeighborhood = nNeighborhood;
+
+        this.particles = new ArrayList<>();
+
+        this.c1 = c1;
+        this.c2 = c2;
+        this.inertia = inertia;
+
+        this.w1 = w1;
+        this.w2 = w2;
+
+        this.maxStagnation = maxStagnation;
+
+        //any permutation can be reached from any other in at most size - 1 swaps
+        this.maxVelocity = Math.max(1, size - 1);
+
+        this.random = new Random();
+        this.verbose = true;
+
+        this.regionCount = new int[colors.size()];
+        this.swapBuffer = new int[6 * maxVelocity];
+        this.diffBuffer = new int[2 * maxVelocity];
+        this.diffCopy = new int[size];
+        this.diffWhere = new int[size];
+    }
+
+    //batch runs switch the console output off
+    public void setVerbose(boolean verbose) {
+        this.verbose = verbose;
+    }
+
+    //fixed seed so a run can be repeated exactly
+    public void setSeed(long seed) {
+        this.random = new Random(seed);
+    }
+
+    public void setInstrumentation(SolverInstrumentation instrumentation) {
+        this.instrumentation = instrumentation;
+    }
+
+    private void initialize() {
+        for (int i = 0; i < nParticles; i++) {
+            this.particles.add(new PermutationParticle(generatePermutation()));
+        }
+
+        this.nBests = new int[nNeighborhood];
+
+        List<Integer> indexes = IntStream.range(0, nParticles).boxed().collect(Collectors.toList());
+        Collections.shuffle(indexes, random);
+        this.neighborhoods = partitionList(indexes, nNeighborhood);
+
+        for (int i = 0; i < nNeighborhood; i++) {
+            int curNBestIdx = -1;
+            double curNBestFitness = Double.MAX_VALUE;
+
+            for (int index : neighborhoods.get(i)) {
+                PermutationParticle p = particles.get(index);
+                p.fitness = calculateFitness(p.position);
+                p.pBestFitness = p.fitness;
+                p.pBest = p.position.clone();
+
+                if (p.fitness < curNBestFitness) {
+                    curNBestFitness = p.fitness;
+                    curNBestIdx = index;
+                }
+            }
+            nBests[i] = curNBestIdx;
+        }
+    }
+
+    //random permutation using Fisher-Yates
+    private int[] generatePermutation() {
+        int[] perm = new int[size];
+        for (int i = 0; i < size; i++) {
+            perm[i] = i;
+        }
+        for (int i = size - 1; i > 0; i--) {
+            int j = random.nextInt(i + 1);
+            int tmp = perm[i];
+            perm[i] = perm[j];
+            perm[j] = tmp;
+        }
+        return perm;
+    }
+
+    private List<List<Integer>> partitionList(List<Integer> list, int n) {
+        List<List<Integer>> result = new ArrayList<>(n);
+
+        int size = list.size();
+        int baseSize = size / n;
+        int remainder = size % n;
+
+        int index = 0;
+
+        for (int i = 0; i < n; i++) {
+            int groupSize = baseSize + (i < remainder ? 1 : 0);
+
+            List<Integer> neighborhood = new ArrayList<>();
+
+            for (int j = 0; j < groupSize && index < size; j++) {
+                neighborhood.add(list.get(index++));
+            }
+
+            result.add(neighborhood);
+        }
+
+        return result;
+    }
+
+    private double calculateFitness(int[] position) {
+        evaluations++;
+        instrumentation.fitnessEvaluation();
+        return w1 * countRegionViolations(position) + w2 * countAdjacencyViolations(position);
+    }
+
+    //number of queen pairs that share a color
+    private int countRegionViolations(int[] position) {
+        Arrays.fill(regionCount, 0);
+
+        int count = 0;
+        for (int row = 0; row < size; row++) {
+            count += regionCount[regionOf[row][position[row]]]++;
+        }
+        return count;
+    }
+
+    //queens in different rows and columns can only touch diagonally in consecutive rows
+    private int countAdjacencyViolations(int[] position) {
+        int count = 0;
+        for (int row = 0; row + 1 < size; row++) {
+            if (Math.abs(position[row] - position[row + 1]) == 1) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    public boolean solve() {
+        if (verbose) {
+            System.out.println("Starting permutation PSO solver for " + size + "x" + size + " board with " + colors.size() + " colors.");
+            System.out.println("Parameters: iterations=" + nIterations + ", particles=" + nParticles +
+                             ", neighborhoods=" + nNeighborhood + ", c1=" + c1 + ", c2=" + c2 +
+                             ", inertia=" + inertia + ", w1=" + w1 + ", w2=" + w2 +
+                             ", maxStagnation=" + maxStagnation);
+        }
+
+        long startTime = System.nanoTime();
+
+        initialize();
+
+        double globalBestFitness = getLowestNBestFitness();
+        int stagnationCounter = 0;
+        int iteration = 0;
+
+        while (iteration < nIterations && checkNbest() == -1 && stagnationCounter < maxStagnation) {
+            iteration++;
+            instrumentation.iterationStart();
+            updateParticles();
+            instrumentation.iterationEnd(iteration);
+
+            double currentBestFitness = getLowestNBestFitness();
+            if (currentBestFitness < globalBestFitness) {
+                globalBestFitness = currentBestFitness;
+                stagnationCounter = 0;
+            } else {
+                stagnationCounter++;
+            }
+        }
+
+        this.executionTimeNanos = System.nanoTime() - startTime;
+
+        int best = bestIndex();
+        this.finalRegionViolations = countRegionViolations(particles.get(best).position);
+        this.finalAdjacencyViolations = countAdjacencyViolations(particles.get(best).position);
+
+        if (verbose) {
+            System.out.println("\nSolver stats:");
+            System.out.println("Iterations: " + iteration);
+            System.out.println("Time: " + getExecutionTime() + " ms");
+            System.out.println("Solution found: " + isValid());
+        }
+
+        return isValid();
+    }
+
+    private void updateParticles() {
+        for (int i = 0; i < nNeighborhood; i++) {
+            int[] nBestPosition = particles.get(nBests[i]).position;
+            double curNBestFitness = particles.get(nBests[i]).fitness;
+
+            for (int particleIdx : neighborhoods.get(i)) {
+                PermutationParticle p = particles.get(particleIdx);
+
+                updateVelocity(p, nBestPosition);
+
+                //apply the swaps of the velocity to the current position
+                int[] newPosition = p.position.clone();
+                for (int k = 0; k < p.velocityLength; k++) {
+                    int a = p.velocity[2 * k];
+                    int b = p.velocity[2 * k + 1];
+                    int tmp = newPosition[a];
+                    newPosition[a] = newPosition[b];
+                    newPosition[b] = tmp;
+                }
+
+                p.position = newPosition;
+                p.fitness = calculateFitness(newPosition);
+
+                if (p.fitness < p.pBestFitness) {
+                    p.pBestFitness = p.fitness;
+                    p.pBest = newPosition.clone();
+                }
+
+                if (p.fitness < curNBestFitness) {
+                    curNBestFitness = p.fitness;
+                    nBests[i] = particleIdx;
+                }
+            }
+        }
+    }
+
+    //v = inertia * v + c1 * r1 * (pBest - x) + c2 * r2 * (nBest - x), where (a - b) is the swap list turning b into a
+    private void updateVelocity(PermutationParticle p, int[] nBestPosition) {
+        int length = 0;
+
+        length = appendScaled(p.velocity, p.velocityLength, inertia, length);
+
+        int pBestLength = difference(p.pBest, p.position);
+        length = appendScaled(diffBuffer, pBestLength, c1 * random.nextDouble(1.0), length);
+
+        int nBestLength = difference(nBestPosition, p.position);
+        length = appendScaled(diffBuffer, nBestLength, c2 * random.nextDouble(1.0), length);
+
+        length = Math.min(length, maxVelocity);
+
+        if (p.velocity.length < 2 * length) {
+            p.velocity = new int[2 * maxVelocity];
+        }
+        System.arraycopy(swapBuffer, 0, p.velocity, 0, 2 * length);
+        p.velocityLength = length;
+    }
+
+    //keeps the first coefficient * length swaps, the fractional part is kept with matching probability
+    private int appendScaled(int[] swaps, int swapCount, double coefficient, int offset) {
+        double scaled = Math.min(coefficient, 1.0) * swapCount;
+        int keep = (int) scaled;
+        if (keep < swapCount && random.nextDouble(1.0) < scaled - keep) {
+            keep++;
+        }
+
+        System.arraycopy(swaps, 0, swapBuffer, 2 * offset, 2 * keep);
+        return offset + keep;
+    }
+
+    //writes the swaps that turn 'from' into 'target' into diffBuffer and returns how many there are
+    private int difference(int[] target, int[] from) {
+        System.arraycopy(from, 0, diffCopy, 0, size);
+        for (int row = 0; row < size; row++) {
+            diffWhere[diffCopy[row]] = row;
+        }
+
+        int count = 0;
+        for (int row = 0; row < size; row++) {
+            if (diffCopy[row] != target[row]) {
+                int other = diffWhere[target[row]];
+
+                diffWhere[diffCopy[row]] = other;
+                diffWhere[target[row]] = row;
+                diffCopy[other] = diffCopy[row];
+                diffCopy[row] = target[row];
+
+                diffBuffer[2 * count] = row;
+                diffBuffer[2 * count + 1] = other;
+                count++;
+            }
+        }
+        return count;
+    }
+
+    private double getLowestNBestFitness() {
+        return particles.get(checkLowestNBest()).fitness;
+    }
+
+    private int checkLowestNBest() {
+        int solution = -1;
+        double minFitness = Double.MAX_VALUE;
+
+        for (int n : nBests) {
+            if (particles.get(n).fitness < minFitness) {
+                minFitness = particles.get(n).fitness;
+                solution = n;
+            }
+        }
+        return solution;
+    }
+
+    private int checkNbest() {
+        for (int n : nBests) {
+            if (particles.get(n).fitness == 0) {
+                return n;
+            }
+        }
+        return -1;
+    }
+
+    private int bestIndex() {
+        int bestIdx = checkNbest();
+        return bestIdx != -1 ? bestIdx : checkLowestNBest();
+    }
+
+    //coordinates of the best particle, one queen per row
+    public List<int[]> getSolutionCoordinates() {
+        int[] position = particles.get(bestIndex()).position;
+
+        List<int[]> coords = new ArrayList<>();
+        for (int row = 0; row < size; row++) {
+            coords.add(new int[]{row, position[row]});
+        }
+        return coords;
+    }
+
+    public void printSolution() {
+        int[] position = particles.get(bestIndex()).position;
+
+        if (!isValid()) {
+            System.out.println("\n=== BEST SOLUTION (NOT VALID) ===");
+            System.out.println("Fitness: " + getFitness());
+        }
+
+        System.out.println("Final solution:");
+        String[][] grid = new String[size][size];
+        for (int r = 0; r < size; r++) {
+            for (int c = 0; c < size; c++) {
+                grid[r][c] = board.getSymbolForColor(colors.get(regionOf[r][c]));
+            }
+        }
+
+        for (int row = 0; row < size; row++) {
+            String symbol = grid[row][position[row]];
+            System.out.println("Color " + symbol + " at [" + row + "," + position[row] + "]");
+            grid[row][position[row]] = "Q";
+        }
+
+        System.out.println("Board state:");
+        for (int r = 0; r < size; r++) {
+            for (int c = 0; c < size; c++) {
+                System.out.print(grid[r][c] + " ");
+            }
+            System.out.println();
+        }
+        System.out.println();
+    }
+
+    public long getExecutionTime() {
+        return executionTimeNanos / 1_000_000;
+    }
+
+    public long getExecutionTimeNanos() {
+        return executionTimeNanos;
+    }
+
+    public boolean isValid() {
+        return checkNbest() != -1;
+    }
+
+    public double getFitness() {
+        return particles.get(bestIndex()).fitness;
+    }
+
+    public int getRegionViolations() {
+        return finalRegionViolations;
+    }
+
+    public int getAdjacencyViolations() {
+        return finalAdjacencyViolations;
+    }
+
+    public long getEvaluations() {
+        return evaluations;
+    }
+}
@@ -5,61 +5,8 @@ import java.util.stream.Collectors;
 import java.util.stream.IntStream;
 
 import com.ArloDante.coloredqueens.objects.Board;
-
-class Particle {
-    private int[] candidate;
-    private double[] velocity;
-    private double fitness;
-    private int[] pBest;
-    private double pBestFitness;
-    
-    public Particle(int[] candidate, double[] velocity) {
-        this.candidate = candidate;
-        this.velocity = velocity;
-        this.pBest = candidate.clone();
-        this.pBestFitness = Double.MAX_VALUE;
-    }
-
-    public int[] getCandidate() {
-        return candidate;
-    }
-
-    public void setCandidate(int[] candidate) {
-        this.candidate = candidate;
-    }
-
-    public double[] getVelocity() {
-        return velocity;
-    }
-
-    public void setVelocity(double[] velocity) {
-        this.velocity = velocity;
-    }
-
-    public double getFitness() {
-        return fitness;
-    }
-
-    public void setFitness(double fitness) {
-        this.fitness = fitness;
-    }
-
-    public int[] getPBest() {
-        return pBest;
-    }
-
-    public void setPBest(int[] pBest) {
-        this.pBest = pBest;
-    }
-
-    public double getPBestFitness() {
-        return pBestFitness;
-    }
-
-    public void setPBestFitness(double pBestFitness) {
-        this.pBestFitness = pBestFitness;
-    }
-}
+import com.ArloDante.coloredqueens.solver.SolverInstrumentation;
+import com.ArloDante.coloredqueens.solver.backtracking.BacktrackingSolverAC3;
 
 public class PSOSolverTest {
     private Board board;
@@ -83,10 +30,33 @@ public class PSOSolverTest {
     private double w2;
     
     private int maxStagnation;
+
+    //optional memetic repair of the neighborhood bests, disabled when repairSteps = 0
+    private int repairSteps;
+    private MinConflictsRepair repair;
+    private long repairTime;
+
+    //optional AC-3 pruned domains used to sample positions, null when every cell of a color is allowed
+    private boolean prunedInitialization;
+    private int[][] domains;
+
+    //optional per-iteration telemetry, the fitness sums are filled by updateParticles
+    private PSOTelemetry telemetry;
+    private double fitnessSum;
+    private double fitnessSumSq;
+
+    //optional adaptive control of inertia, c1, c2 and the swarm size
+    private boolean adaptiveMode;
+    private AdaptiveController adaptive;
+    private int[] activeCount; //leading particles of each neighborhood that take part in the search
+    private int activeParticles;
+    private double positionDiversity;
+    private long evaluations;
     
     private Random random;
+    private SolverInstrumentation instrumentation = SolverInstrumentation.NONE;
     
-    private long executionTime;
+    private long executionTimeNanos;
     private int finalAttackingViolations;
     private int finalAdjacencyViolations;
     
@@ -95,7 +65,7 @@ public class PSOSolverTest {
         this.size = this.board.getSize();
         
         this.colorCells = this.board.getColorMap();
-        this.colors = new ArrayList<>(this.colorCells.keySet());
+        this.colors = new ArrayList<>(this.board.getColors());
 
         this.nIterations = nIterations;
         this.nParticles = nParticles;
@@ -115,6 +85,34 @@ public class PSOSolverTest {
         this.random = new Random();
     }
 
+    //enable the min-conflicts repair of every neighborhood best after each iteration
+    public void setRepairSteps(int repairSteps) {
+        this.repairSteps = repairSteps;
+    }
+
+    //sample the swarm only from the domains left after one AC-3 pass over the empty board
+    public void setPrunedInitialization(boolean prunedInitialization) {
+        this.prunedInitialization = prunedInitialization;
+    }
+
+    public void setTelemetry(PSOTelemetry telemetry) {
+        this.telemetry = telemetry;
+    }
+
+    //fixed seed so a run can be repeated exactly
+    public void setSeed(long seed) {
+        this.random = new Random(seed);
+    }
+
+    public void setInstrumentation(SolverInstrumentation instrumentation) {
+        this.instrumentation = instrumentation;
+    }
+
+    //adjust inertia, c1, c2 and the number of active particles on-line instead of using fixed values
+    public void setAdaptive(boolean adaptiveMode) {
+        this.adaptiveMode = adaptiveMode;
+    }
+
     private void generateParticles() {
         for (int i = 0; i < nParticles; i++) {
             int[] newSolution = generatePossibleSolution();
@@ -127,6 +125,13 @@ public class PSOSolverTest {
     private int[] generatePossibleSolution() {
         int[] newSolution = new int[this.colors.size()];
 
+        if (this.domains != null) {
+            for (int i = 0; i < this.domains.length; i++) {
+                newSolution[i] = this.domains[i][random.nextInt(this.domains[i].length)];
+            }
+            return newSolution;
+        }
+
         int idx = 0;
         for (String s : this.colors) {
             int domain = colorCells.get(s).size();
@@ -137,6 +142,21 @@ public class PSOSolverTest {
         return newSolution;
     }
 
+    //returns null if propagation wipes out a domain (no solution), so sampling falls back to the full regions
+    private int[][] propagateDomains() {
+        BacktrackingSolverAC3 ac3 = new BacktrackingSolverAC3(this.board);
+        ac3.setInstrumentation(this.instrumentation);
+        Map<String, BitSet> pruned = ac3.propagateInitialDomains();
+        int[][] result = new int[this.colors.size()][];
+
+        for (int i = 0; i < this.colors.size(); i++) {
+            BitSet valid = pruned.get(this.colors.get(i));
+            if (valid.isEmpty()) return null;
+            result[i] = valid.stream().toArray();
+        }
+        return result;
+    }
+
     private double[] generateRandomVelocity() {
         double[] newVelocity = new double[this.colors.size()];
 
@@ -148,9 +168,18 @@ public class PSOSolverTest {
     }
 
     private void initialize() {
+        if (this.prunedInitialization) {
+            this.domains = propagateDomains();
+        }
+
         this.generateParticles();
         this.generateNeighborhoods();
+        this.initializeActiveParticles();
         this.calculateInitialFitness();
+
+        if (this.repairSteps > 0) {
+            this.repair = new MinConflictsRepair(this.colors, this.colorCells, this.domains, this.w1, this.w2, this.repairSteps, this.random);
+        }
     }
 
     private void generateNeighborhoods() {
@@ -159,7 +188,7 @@ public class PSOSolverTest {
 
         List<Integer> indexes = IntStream.range(0, nParticles).boxed().collect(Collectors.toList());
         
-        Collections.shuffle(indexes);
+        Collections.shuffle(indexes, random);
 
         this.neighborhoods = partitionList(indexes, nNeighborhood);
     }
@@ -188,12 +217,41 @@ public class PSOSolverTest {
         return result;
     }
 
+    private void initializeActiveParticles() {
+        this.activeCount = new int[this.nNeighborhood];
+
+        if (this.adaptiveMode) {
+            int minActive = Math.min(this.nParticles, 2 * this.nNeighborhood);
+            this.adaptive = new AdaptiveController(this.inertia, this.c1, this.c2, minActive, this.nParticles, this.maxStagnation);
+            distributeActive(this.adaptive.initialActive());
+        } else {
+            for (int i = 0; i < this.nNeighborhood; i++) {
+                this.activeCount[i] = this.neighborhoods.get(i).size();
+            }
+            this.activeParticles = this.nParticles;
+        }
+    }
+
+    //split the active particles over the neighborhoods proportionally to their size
+    private void distributeActive(int total) {
+        this.activeParticles = 0;
+
+        for (int i = 0; i < this.nNeighborhood; i++) {
+            int groupSize = this.neighborhoods.get(i).size();
+            int target = (int) Math.round((double) groupSize * total / this.nParticles);
+            this.activeCount[i] = Math.max(Math.min(target, groupSize), Math.min(1, groupSize));
+            this.activeParticles += this.activeCount[i];
+        }
+    }
+
     private void calculateInitialFitness() {
         for (int i = 0; i < this.nNeighborhood; i++) {
             int curNBestIdx = -1;
             double curNBestFitness = Double.MAX_VALUE;
+            List<Integer> members = this.neighborhoods.get(i);
             
-            for (int index : this.neighborhoods.get(i)) {
+            for (int k = 0; k < this.activeCount[i]; k++) {
+                int index = members.get(k);
                 Particle p = this.particles.get(index);
                 double fitness = calculateFitness(p);
                 p.setFitness(fitness);
@@ -210,6 +268,9 @@ public class PSOSolverTest {
     }
 
     private double calculateFitness(Particle candidate) {
+        this.evaluations++;
+        this.instrumentation.fitnessEvaluation();
+
         boolean[][] occupied = new boolean[this.size][this.size];
 
         int[] positions = candidate.getCandidate();
@@ -289,7 +350,7 @@ public class PSOSolverTest {
     }
 
     public void solve() {
-        long startTime = System.currentTimeMillis();
+        long startTime = System.nanoTime();
         
         initialize();
 
@@ -297,12 +358,17 @@ public class PSOSolverTest {
         int stagnationCounter = 0;
 
         for (int i = 1; i <= this.nIterations; i++) {
+            long iterationStart = (this.telemetry != null) ? System.nanoTime() : 0;
+            this.instrumentation.iterationStart();
+
             updateVelocity();
             updateParticles();
+            this.instrumentation.iterationEnd(i);
 
             if (checkNbest() != -1) {
-                long endTime = System.currentTimeMillis();
-                this.executionTime = endTime - startTime;
+                if (this.telemetry != null) recordTelemetry(i, stagnationCounter, iterationStart);
+                long endTime = System.nanoTime();
+                this.executionTimeNanos = endTime - startTime;
                 storeFinalViolations(checkNbest());
                 return;
             }
@@ -315,16 +381,20 @@ public class PSOSolverTest {
                 stagnationCounter++;
             }
 
+            if (this.telemetry != null) recordTelemetry(i, stagnationCounter, iterationStart);
+
+            if (this.adaptive != null) adapt(stagnationCounter);
+
             if (stagnationCounter >= maxStagnation) {
-                long endTime = System.currentTimeMillis();
-                this.executionTime = endTime - startTime;
+                long endTime = System.nanoTime();
+                this.executionTimeNanos = endTime - startTime;
                 storeFinalViolations(checkLowestNBest());
                 return;
             }
         }
 
-        long endTime = System.currentTimeMillis();
-        this.executionTime = endTime - startTime;
+        long endTime = System.nanoTime();
+        this.executionTimeNanos = endTime - startTime;
         storeFinalViolations(checkLowestNBest());
     }
 
@@ -346,6 +416,14 @@ public class PSOSolverTest {
         this.finalAdjacencyViolations = calculateAdjacencyViolation(p, occupied);
     }
 
+    //best, mean and standard deviation of the swarm fitness for this iteration
+    private void recordTelemetry(int iteration, int stagnation, long iterationStart) {
+        double mean = this.fitnessSum / this.activeParticles;
+        double variance = Math.max(0.0, this.fitnessSumSq / this.activeParticles - mean * mean);
+
+        this.telemetry.record(iteration, getLowestNBestFitness(), mean, Math.sqrt(variance), stagnation, System.nanoTime() - iterationStart);
+    }
+
     private double getLowestNBestFitness() {
         double minFitness = Double.MAX_VALUE;
 
@@ -385,13 +463,18 @@ public class PSOSolverTest {
     }
 
     private void updateParticles() {
+        this.fitnessSum = 0;
+        this.fitnessSumSq = 0;
+
         for (int i = 0; i < this.nNeighborhood; i++) {
             int nBestIdx = this.nBests[i];
             int[] nBestPosition = this.particles.get(nBestIdx).getCandidate();
             
             double curNBestFitness = this.particles.get(nBestIdx).getFitness();
+            List<Integer> members = this.neighborhoods.get(i);
             
-            for (int particleIdx : this.neighborhoods.get(i)) {
+            for (int k = 0; k < this.activeCount[i]; k++) {
+                int particleIdx = members.get(k);
                 Particle p = this.particles.get(particleIdx);
                 int[] currentPosition = p.getCandidate();
                 double[] velocity = p.getVelocity();
@@ -409,6 +492,8 @@ public class PSOSolverTest {
                 
                 double newFitness = calculateFitness(p);
                 p.setFitness(newFitness);
+                this.fitnessSum += newFitness;
+                this.fitnessSumSq += newFitness * newFitness;
                 
                 if (newFitness < p.getPBestFitness()) {
                     p.setPBestFitness(newFitness);
@@ -421,14 +506,47 @@ public class PSOSolverTest {
                 }
             }
         }
+
+        if (this.repair != null) {
+            repairNBests();
+        }
+    }
+
+    //run the local search on every neighborhood best and write improvements back into the particle and its pBest
+    private void repairNBests() {
+        long start = System.nanoTime();
+
+        for (int i = 0; i < this.nNeighborhood; i++) {
+            Particle p = this.particles.get(this.nBests[i]);
+            if (p.getFitness() == 0) continue;
+
+            int[] candidate = p.getCandidate().clone();
+            double repairedFitness = this.repair.repair(candidate);
+
+            if (repairedFitness < p.getFitness()) {
+                p.setCandidate(candidate);
+                p.setFitness(repairedFitness);
+
+                if (repairedFitness < p.getPBestFitness()) {
+                    p.setPBestFitness(repairedFitness);
+                    p.setPBest(candidate.clone());
+                }
+            }
+        }
+
+        this.repairTime += System.nanoTime() - start;
     }
 
     private void updateVelocity() {
+        long nBestDiffCount = 0;
+
         for (int i = 0; i < this.nNeighborhood; i++) {
             int nBestIdx = this.nBests[i];
             int[] nBestPosition = this.particles.get(nBestIdx).getCandidate();
+            List<Integer> members = this.neighborhoods.get(i);
             
-            for (int particleIdx : this.neighborhoods.get(i)) {
+            for (int k = 0; k < this.activeCount[i]; k++) {
+                int particleIdx = members.get(k);
                 Particle p = this.particles.get(particleIdx);
                 int[] currentPosition = p.getCandidate();
                 int[] pBestPosition = p.getPBest();
@@ -441,6 +559,7 @@ public class PSOSolverTest {
                     
                     int pBestDiff = (currentPosition[j] != pBestPosition[j]) ? 1 : 0;
                     int nBestDiff = (currentPosition[j] != nBestPosition[j]) ? 1 : 0;
+                    nBestDiffCount += nBestDiff;
                     
                     newVelocity[j] = this.inertia * velocity[j] + this.c1 * r1 * pBestDiff + this.c2 * r2 * nBestDiff;
                     
@@ -451,6 +570,53 @@ public class PSOSolverTest {
                 p.setVelocity(newVelocity);
             }
         }
+
+        this.positionDiversity = (double) nBestDiffCount / ((long) this.activeParticles * this.colors.size());
+    }
+
+    private void adapt(int stagnation) {
+        boolean improved = (stagnation == 0);
+
+        this.adaptive.update(improved, this.positionDiversity);
+        this.inertia = this.adaptive.getInertia();
+        this.c1 = this.adaptive.getC1();
+        this.c2 = this.adaptive.getC2();
+
+        int newActive = this.adaptive.resize(this.activeParticles, improved, stagnation);
+        if (newActive != this.activeParticles) {
+            resizeSwarm(newActive);
+        }
+    }
+
+    //newly activated particles are re-seeded, deactivated ones simply stop moving
+    private void resizeSwarm(int newActive) {
+        int[] previous = this.activeCount.clone();
+        distributeActive(newActive);
+
+        for (int i = 0; i < this.nNeighborhood; i++) {
+            List<Integer> members = this.neighborhoods.get(i);
+
+            for (int k = previous[i]; k < this.activeCount[i]; k++) {
+                Particle p = this.particles.get(members.get(k));
+                p.setCandidate(generatePossibleSolution());
+                p.setVelocity(generateRandomVelocity());
+
+                double fitness = calculateFitness(p);
+                p.setFitness(fitness);
+                p.setPBestFitness(fitness);
+                p.setPBest(p.getCandidate().clone());
+
+                if (fitness < this.particles.get(this.nBests[i]).getFitness()) {
+                    this.nBests[i] = members.get(k);
+                }
+            }
+
+            //keep the nBest inside the active part of the neighborhood
+            int nBestPos = members.indexOf(this.nBests[i]);
+            if (nBestPos >= this.activeCount[i]) {
+                Collections.swap(members, nBestPos, 0);
+            }
+        }
     }
 
     public List<int[]> getSolutionCoordinates() {
@@ -472,7 +638,11 @@ public class PSOSolverTest {
     }
 
     public long getExecutionTime() {
-        return executionTime;
+        return executionTimeNanos / 1_000_000;
+    }
+
+    public long getExecutionTimeNanos() {
+        return executionTimeNanos;
     }
 
     public boolean isValid() {
@@ -495,4 +665,12 @@ public class PSOSolverTest {
     public int getAdjacencyViolations() {
         return finalAdjacencyViolations;
     }
+
+    public long getRepairTime() {
+        return repairTime / 1_000_000;
+    }
+
+    public long getEvaluations() {
+        return evaluations;
+    }
 }
\ No newline at end of file
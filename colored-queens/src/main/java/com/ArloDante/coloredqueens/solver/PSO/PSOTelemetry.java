@@ -0,0 +1,189 @@
+package com.ArloDante.coloredqueens.solver.PSO;
+
+import java.io.*;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+
+//Opt-in per-iteration telemetry for the PSO solvers.
+//Records go into preallocated chunks, full chunks are handed to a background thread that writes them,
+//so the solver thread never allocates or does I/O while iterating.
+public class PSOTelemetry implements AutoCloseable {
+
+    public enum Format { CSV, BINARY }
+
+    private static final int DEFAULT_CAPACITY = 1024;
+    private static final int CHUNKS = 4;
+
+    //one block of the ring, stored column-wise
+    private static class Chunk {
+        int[] iteration;
+        double[] bestFitness;
+        double[] meanFitness;
+        double[] diversity;
+        int[] stagnation;
+        long[] nanos;
+        int count;
+
+        Chunk(int capacity) {
+            this.iteration = new int[capacity];
+            this.bestFitness = new double[capacity];
+            this.meanFitness = new double[capacity];
+            this.diversity = new double[capacity];
+            this.stagnation = new int[capacity];
+            this.nanos = new long[capacity];
+        }
+    }
+
+    private static final Chunk END = new Chunk(0);
+
+    private Format format;
+    private int capacity;
+    private BlockingQueue<Chunk> free;
+    private BlockingQueue<Chunk> full;
+    private Chunk current;
+
+    private DataOutputStream binaryOut;
+    private PrintWriter csvOut;
+    private Thread writer;
+    private volatile IOException writeError;
+
+    public PSOTelemetry(File file) throws IOException {
+        this(file, file.getName().endsWith(".csv") ? Format.CSV : Format.BINARY, DEFAULT_CAPACITY);
+    }
+
+    public PSOTelemetry(File file, Format format, int capacity) throws IOException {
+        this.format = format;
+        this.capacity = capacity;
+
+        this.free = new ArrayBlockingQueue<>(CHUNKS);
+        this.full = new ArrayBlockingQueue<>(CHUNKS + 1);
+        for (int i = 0; i < CHUNKS - 1; i++) {
+            free.add(new Chunk(capacity));
+        }
+        this.current = new Chunk(capacity);
+
+        OutputStream out = new BufferedOutputStream(new FileOutputStream(file), 1 << 16);
+        if (format == Format.CSV) {
+            this.csvOut = new PrintWriter(new OutputStreamWriter(out));
+            csvOut.println("iteration,bestFitness,meanFitness,diversity,stagnation,nanos");
+        } else {
+            this.binaryOut = new DataOutputStream(out);
+        }
+
+        this.writer = new Thread(this::drain, "pso-telemetry-writer");
+        this.writer.setDaemon(true);
+        this.writer.start();
+    }
+
+    //called once per iteration by the solver thread
+    public void record(int iteration, double bestFitness, double meanFitness, double diversity, int stagnation, long nanos) {
+        Chunk c = current;
+        int i = c.count;
+
+        c.iteration[i] = iteration;
+        c.bestFitness[i] = bestFitness;
+        c.meanFitness[i] = meanFitness;
+        c.diversity[i] = diversity;
+        c.stagnation[i] = stagnation;
+        c.nanos[i] = nanos;
+        c.count = i + 1;
+
+        if (c.count == capacity) {
+            handOff(c);
+            current = takeFree();
+        }
+    }
+
+    private void handOff(Chunk c) {
+        try {
+            full.put(c);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    //blocks only if the writer is a whole ring behind
+    private Chunk takeFree() {
+        try {
+            return free.take();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return new Chunk(capacity);
+        }
+    }
+
+    private void drain() {
+        try {
+            while (true) {
+                Chunk c = full.take();
+                if (c == END) break;
+
+                //after a failed write keep recycling chunks so the solver never blocks
+                if (writeError == null) {
+                    try {
+                        write(c);
+                    } catch (IOException e) {
+                        writeError = e;
+                    }
+                }
+                c.count = 0;
+                free.put(c);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void write(Chunk c) throws IOException {
+        for (int i = 0; i < c.count; i++) {
+            if (format == Format.CSV) {
+                csvOut.print(c.iteration[i]);
+                csvOut.print(',');
+                csvOut.print(c.bestFitness[i]);
+                csvOut.print(',');
+                csvOut.print(c.meanFitness[i]);
+                csvOut.print(',');
+                csvOut.print(c.diversity[i]);
+                csvOut.print(',');
+                csvOut.print(c.stagnation[i]);
+                csvOut.print(',');
+                csvOut.println(c.nanos[i]);
+            } else {
+                binaryOut.writeInt(c.iteration[i]);
+                binaryOut.writeDouble(c.bestFitness[i]);
+                binaryOut.writeDouble(c.meanFitness[i]);
+                binaryOut.writeDouble(c.diversity[i]);
+                binaryOut.writeInt(c.stagnation[i]);
+                binaryOut.writeLong(c.nanos[i]);
+            }
+        }
+    }
+
+    //flushes the partially filled chunk and waits for the writer to finish
+    @Override
+    public void close() throws IOException {
+        if (current.count > 0) {
+            handOff(current);
+        }
+        handOff(END);
+
+        try {
+            writer.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+
+        if (format == Format.CSV) {
+            if (csvOut.checkError() && writeError == null) {
+                writeError = new IOException("Failed to write telemetry CSV");
+            }
+            csvOut.close();
+        } else {
+            binaryOut.close();
+        }
+
+        if (writeError != null) {
+            throw writeError;
+        }
+    }
+}
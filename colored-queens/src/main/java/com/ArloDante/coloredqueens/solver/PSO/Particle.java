@@ -0,0 +1,57 @@
+package com.ArloDante.coloredqueens.solver.PSO;
+
+class Particle {
+    private int[] candidate;
+    private double[] velocity;
+    private double fitness;
+    private int[] pBest;
+    private double pBestFitness;
+    
+    public Particle(int[] candidate, double[] velocity) {
+        this.candidate = candidate;
+        this.velocity = velocity;
+        this.pBest = candidate.clone();
+        this.pBestFitness = Double.MAX_VALUE;
+    }
+
+    public int[] getCandidate() {
+        return candidate;
+    }
+
+    public void setCandidate(int[] candidate) {
+        this.candidate = candidate;
+    }
+
+    public double[] getVelocity() {
+        return velocity;
+    }
+
+    public void setVelocity(double[] velocity) {
+        this.velocity = velocity;
+    }
+
+    public double getFitness() {
+        return fitness;
+    }
+
+    public void setFitness(double fitness) {
+        this.fitness = fitness;
+    }
+
+    public int[] getPBest() {
+        return pBest;
+    }
+
+    public void setPBest(int[] pBest) {
+        this.pBest = pBest;
+    }
+
+    public double getPBestFitness() {
+        return pBestFitness;
+    }
+
+    public void setPBestFitness(double pBestFitness) {
+        this.pBestFitness = pBestFitness;
+    }
+
+}
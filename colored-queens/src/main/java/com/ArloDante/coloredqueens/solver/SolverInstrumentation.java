@@ -0,0 +1,35 @@
+package com.ArloDante.coloredqueens.solver;
+
+//Hooks the solvers call on their hot paths, every method is empty by default.
+//Solvers start with NONE, a call site that only ever sees NONE is inlined by the JIT to nothing,
+//so the counters cost nothing unless a CountingInstrumentation is set.
+public interface SolverInstrumentation {
+    SolverInstrumentation NONE = new SolverInstrumentation() { };
+
+    //one search node = one call of placeQueens that still has a color to place
+    default void node() { }
+
+    //one test whether a cell can hold a queen / whether two cells attack each other
+    default void validityCheck() { }
+
+    //one value removed from a domain (forward check or revise)
+    default void prune() { }
+
+    default void revise() { }
+
+    default void arcEnqueue() { }
+
+    //current depth of the trail (placed queens, or prune stack entries for AC-3)
+    default void trail(int depth) { }
+
+    default void fitnessEvaluation() { }
+
+    //phase boundaries, used for the JFR events
+    default void propagationStart() { }
+
+    default void propagationEnd() { }
+
+    default void iterationStart() { }
+
+    default void iterationEnd(int iteration) { }
+}
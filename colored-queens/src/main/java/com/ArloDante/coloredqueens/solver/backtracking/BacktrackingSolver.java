@@ -1,6 +1,7 @@
 package com.ArloDante.coloredqueens.solver.backtracking;
 
 import com.ArloDante.coloredqueens.objects.Board;
+import com.ArloDante.coloredqueens.solver.SolverInstrumentation;
 
 import java.util.*;
 
@@ -14,31 +15,47 @@ public class BacktrackingSolver {
     private long steps;
     private long backtracks;
     private long startTime;
+    private boolean verbose;
+    private SolverInstrumentation instrumentation = SolverInstrumentation.NONE;
 
     public BacktrackingSolver(Board board) {
         this.board = board;
         this.size = board.getSize();
         this.colorCells = board.getColorMap();
-        this.colors = new ArrayList<>(colorCells.keySet());
+        this.colors = new ArrayList<>(board.getColors());
         this.solution = new int[colors.size()];
         Arrays.fill(solution, -1);
         this.occupied = new boolean[size][size];
         this.steps = 0;
         this.backtracks = 0;
+        this.verbose = true;
+    }
+
+    //benchmarks and batch runs switch the console output off
+    public void setVerbose(boolean verbose) {
+        this.verbose = verbose;
+    }
+
+    public void setInstrumentation(SolverInstrumentation instrumentation) {
+        this.instrumentation = instrumentation;
     }
 
     //memanggil fungsi rekursif
     public boolean solve() {
-        System.out.println("Starting pure backtracking solver for " + size + "x" + size + " board with " + colors.size() + " colors.");
+        if (verbose) {
+            System.out.println("Starting pure backtracking solver for " + size + "x" + size + " board with " + colors.size() + " colors.");
+        }
         startTime = System.currentTimeMillis();
         boolean result = placeQueens(0); //hasil fungsi rekursif disimpan di sini
         long endTime = System.currentTimeMillis();
 
-        System.out.println("\nSolver stats:");
-        System.out.println("Steps: " + steps);
-        System.out.println("Backtracks: " + backtracks);
-        System.out.println("Time: " + (endTime - startTime) + " ms");
-        System.out.println("Solution found: " + result);
+        if (verbose) {
+            System.out.println("\nSolver stats:");
+            System.out.println("Steps: " + steps);
+            System.out.println("Backtracks: " + backtracks);
+            System.out.println("Time: " + (endTime - startTime) + " ms");
+            System.out.println("Solution found: " + result);
+        }
 
         return result;
     }
@@ -54,6 +71,7 @@ public class BacktrackingSolver {
         List<int[]> cells = colorCells.get(color);
 
         steps++;
+        instrumentation.node();
 
 
         //mencoba setiap cell yang berwarna sama
@@ -64,8 +82,7 @@ public class BacktrackingSolver {
 
             //jika posisi valid
             if (isValid(row, col)) {
-                solution[colorIndex] = i;
-                occupied[row][col] = true;
+                placeQueen(colorIndex, i, row, col);
 
 
                 //lanjutkan untuk warna sebelumnya
@@ -74,15 +91,29 @@ public class BacktrackingSolver {
                 }
 
                 backtracks++;
-                solution[colorIndex] = -1;
-                occupied[row][col] = false;
+                removeQueen(colorIndex, row, col);
             }
         }
 
         return false;
     }
 
-    private boolean isValid(int row, int col) {
+    //placeQueen, removeQueen and isValid are package-private so the kernel benchmarks can build mid-search states.
+    //row/col are the cell the caller already has in hand, no lookup on the search path
+    void placeQueen(int colorIndex, int cellIdx, int row, int col) {
+        solution[colorIndex] = cellIdx;
+        occupied[row][col] = true;
+        instrumentation.trail(colorIndex + 1);
+    }
+
+    void removeQueen(int colorIndex, int row, int col) {
+        solution[colorIndex] = -1;
+        occupied[row][col] = false;
+    }
+
+    boolean isValid(int row, int col) {
+        instrumentation.validityCheck();
+
         //mengecek apakah cell tersebut sudah ada menteri atau belum
         if (occupied[row][col]) {
             return false;
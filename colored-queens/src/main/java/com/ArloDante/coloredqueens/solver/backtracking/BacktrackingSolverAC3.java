@@ -3,6 +3,7 @@ package com.ArloDante.coloredqueens.solver.backtracking;
 import java.util.*;
 
 import com.ArloDante.coloredqueens.objects.Board;
+import com.ArloDante.coloredqueens.solver.SolverInstrumentation;
 
 public class BacktrackingSolverAC3 {
 
@@ -15,6 +16,8 @@ public class BacktrackingSolverAC3 {
     private long steps;
     private long backtracks;
     private long startTime;
+    private boolean verbose;
+    private SolverInstrumentation instrumentation = SolverInstrumentation.NONE;
     
     // OPTIMIZATION: Use bitsets for O(1) operations
     private Map<String, BitSet> validCells;
@@ -50,12 +53,13 @@ public class BacktrackingSolverAC3 {
         this.board = board;
         this.size = board.getSize();
         this.colorCells = board.getColorMap();
-        this.colors = new ArrayList<>(colorCells.keySet());
+        this.colors = new ArrayList<>(board.getColors());
         this.solution = new int[colors.size()];
         Arrays.fill(solution, -1);
         this.occupied = new boolean[size][size];
         this.steps = 0;
         this.backtracks = 0;
+        this.verbose = true;
         
         // Initialize bitsets
         this.validCells = new HashMap<>();
@@ -72,34 +76,91 @@ public class BacktrackingSolverAC3 {
         this.pruneStack = new Stack<>();
     }
 
+    //benchmarks and batch runs switch the console output off
+    public void setVerbose(boolean verbose) {
+        this.verbose = verbose;
+    }
+
+    public void setInstrumentation(SolverInstrumentation instrumentation) {
+        this.instrumentation = instrumentation;
+    }
+
     public boolean solve() {
-        System.out.println("Starting AC-3 solver for " + size + "x" + size + " board with " + colors.size() + " colors.");
+        if (verbose) {
+            System.out.println("Starting AC-3 solver for " + size + "x" + size + " board with " + colors.size() + " colors.");
+        }
         startTime = System.currentTimeMillis();
         boolean result = placeQueens(0);
         long endTime = System.currentTimeMillis();
 
-        System.out.println("\nSolver stats:");
-        System.out.println("Steps: " + steps);
-        System.out.println("Backtracks: " + backtracks);
-        System.out.println("Time: " + (endTime - startTime) + " ms");
-        System.out.println("Solution found: " + result);
+        if (verbose) {
+            System.out.println("\nSolver stats:");
+            System.out.println("Steps: " + steps);
+            System.out.println("Backtracks: " + backtracks);
+            System.out.println("Time: " + (endTime - startTime) + " ms");
+            System.out.println("Solution found: " + result);
+        }
 
         return result;
     }
 
+    //runs AC-3 once on the empty board and returns the reduced domain of every color (indexes into its cell list)
+    //values removed here can never be part of a solution, so other solvers can sample from these domains only
+    public Map<String, BitSet> propagateInitialDomains() {
+        Queue<Pair<Integer, Integer>> queue = new LinkedList<>();
+        for (int i = 0; i < colors.size(); i++) {
+            for (int j = 0; j < colors.size(); j++) {
+                if (i != j) {
+                    queue.add(new Pair<>(i, j));
+                    instrumentation.arcEnqueue();
+                }
+            }
+        }
+        propagateArcs(queue);
+
+        Map<String, BitSet> domains = new HashMap<>();
+        for (String color : colors) {
+            domains.put(color, (BitSet) validCells.get(color).clone());
+        }
+        return domains;
+    }
+
     private boolean placeQueens(int colorIndex) {
-    if (colorIndex == colors.size()) return true;
+        if (colorIndex == colors.size()) return true;
+
+        steps++;
+        instrumentation.node();
 
-    String color = colors.get(colorIndex);
-    List<int[]> cells = colorCells.get(color);
-    BitSet valid = validCells.get(color);
+        String color = colors.get(colorIndex);
+        List<int[]> cells = colorCells.get(color);
+        BitSet valid = validCells.get(color);
 
-    if (valid.cardinality() == 0) return false;
+        if (valid.cardinality() == 0) return false;
 
-    for (int cellIdx = valid.nextSetBit(0); cellIdx >= 0; cellIdx = valid.nextSetBit(cellIdx + 1)) {
-        int row = cells.get(cellIdx)[0];
-        int col = cells.get(cellIdx)[1];
+        for (int cellIdx = valid.nextSetBit(0); cellIdx >= 0; cellIdx = valid.nextSetBit(cellIdx + 1)) {
+            int row = cells.get(cellIdx)[0];
+            int col = cells.get(cellIdx)[1];
+            int pruneStartPos = assign(colorIndex, cellIdx, row, col);
 
+            if (anyColorExhausted(colorIndex)) {
+                unassign(colorIndex, row, col, pruneStartPos);
+                backtracks++;
+                continue;
+            }
+
+            if (placeQueens(colorIndex + 1)) return true;
+
+            unassign(colorIndex, row, col, pruneStartPos);
+            backtracks++;
+        }
+
+        return false;
+    }
+
+    //places a queen, forward-checks and runs AC-3 among the future colors, returns the prune stack position to undo to
+    //package-private together with the kernels below so the benchmarks can build mid-search states
+    //row/col are the cell the caller already has in hand, no lookup on the search path
+    int assign(int colorIndex, int cellIdx, int row, int col) {
         solution[colorIndex] = cellIdx;
         occupied[row][col] = true;
 
@@ -112,32 +173,28 @@ public class BacktrackingSolverAC3 {
         Queue<Pair<Integer, Integer>> queue = new LinkedList<>();
         for (int i = colorIndex + 1; i < colors.size(); i++) {
             for (int j = colorIndex + 1; j < colors.size(); j++) {
-                if (i != j) queue.add(new Pair<>(i, j));
+                if (i != j) {
+                    queue.add(new Pair<>(i, j));
+                    instrumentation.arcEnqueue();
+                }
             }
         }
         propagateArcs(queue);
 
-        if (anyColorExhausted(colorIndex)) {
-            undoPrunes(pruneStartPos);
-            occupied[row][col] = false;
-            solution[colorIndex] = -1;
-            backtracks++;
-            continue;
-        }
-
-        steps++;
-        if (placeQueens(colorIndex + 1)) return true;
+        return pruneStartPos;
+    }
 
+    void unassign(int colorIndex, int row, int col, int pruneStartPos) {
         undoPrunes(pruneStartPos);
         occupied[row][col] = false;
         solution[colorIndex] = -1;
-        backtracks++;
     }
 
-    return false;
-}
+    int getPruneStackSize() {
+        return pruneStack.size();
+    }
 
-    private void forwardCheck(int row, int col, int placedColorIdx) {
+    void forwardCheck(int row, int col, int placedColorIdx) {
         // Remove attacked cells from all future colors
         for (int colorIdx = placedColorIdx + 1; colorIdx < colors.size(); colorIdx++) {
             String color = colors.get(colorIdx);
@@ -151,6 +208,7 @@ public class BacktrackingSolverAC3 {
                 int c2 = target[1];
 
                 // INLINE CONFLICT CHECK (Replaces attackZone.contains)
+                instrumentation.validityCheck();
                 boolean conflict = (row == r2 || col == c2 || 
                                    Math.abs(row - r2) <= 1 && Math.abs(col - c2) <= 1);
                 
@@ -158,12 +216,15 @@ public class BacktrackingSolverAC3 {
                     valid.clear(i);
                     colorCellCount[colorIdx]--;
                     pruneStack.push(new PruneAction(color, i));
+                    instrumentation.prune();
+                    instrumentation.trail(pruneStack.size());
                 }
             }
         }
     }
 
-    private boolean revise(int fromColorIdx, int toColorIdx) {
+    boolean revise(int fromColorIdx, int toColorIdx) {
+        instrumentation.revise();
         boolean revised = false;
 
         String fromColor = colors.get(fromColorIdx);
@@ -206,6 +267,8 @@ public class BacktrackingSolverAC3 {
                 toValid.clear(i);
                 colorCellCount[toColorIdx]--;
                 pruneStack.push(new PruneAction(toColor, i));
+                instrumentation.prune();
+                instrumentation.trail(pruneStack.size());
                 revised = true;
             }
         }
@@ -214,6 +277,8 @@ public class BacktrackingSolverAC3 {
     }
 
     private void propagateArcs(Queue<Pair<Integer, Integer>> queue) {
+        instrumentation.propagationStart();
+
         while (!queue.isEmpty()) {
             Pair<Integer, Integer> arc = queue.poll();
             int fromColorIdx = arc.getKey(); // The "Supporter"
@@ -221,7 +286,7 @@ public class BacktrackingSolverAC3 {
 
             // revise checks if 'to' is supported by 'from'. If 'to' shrinks:
             if (revise(fromColorIdx, toColorIdx)) {
-                if (colorCellCount[toColorIdx] == 0) return;
+                if (colorCellCount[toColorIdx] == 0) break;
 
                 // We must notify neighbors of 'to' that 'to' has changed.
                 // We need to prune the neighbors ('k').
@@ -231,14 +296,18 @@ public class BacktrackingSolverAC3 {
                     if (k != toColorIdx && k != fromColorIdx) { 
                         // CHANGED: Order swapped from (k, to) to (to, k)
                         queue.add(new Pair<>(toColorIdx, k)); 
+                        instrumentation.arcEnqueue();
                     }
                 }
             }
         }
+
+        instrumentation.propagationEnd();
     }
 
     // Check if two cells conflict (same row/col or adjacent)
     private boolean conflicts(int[] cell1, int[] cell2) {
+        instrumentation.validityCheck();
         int r1 = cell1[0], c1 = cell1[1];
         int r2 = cell2[0], c2 = cell2[1];
         
@@ -253,7 +322,7 @@ public class BacktrackingSolverAC3 {
         return false;
     }
 
-    private void undoPrunes(int pruneStartPos) {
+    void undoPrunes(int pruneStartPos) {
         while (pruneStack.size() > pruneStartPos) {
             PruneAction action = pruneStack.pop();
             String color = action.color;
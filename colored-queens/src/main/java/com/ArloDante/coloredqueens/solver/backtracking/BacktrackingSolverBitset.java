@@ -1,6 +1,7 @@
 package com.ArloDante.coloredqueens.solver.backtracking;
 
 import com.ArloDante.coloredqueens.objects.Board;
+import com.ArloDante.coloredqueens.solver.SolverInstrumentation;
 import java.util.*;
 
 public class BacktrackingSolverBitset {
@@ -21,12 +22,14 @@ public class BacktrackingSolverBitset {
     private long steps;
     private long backtracks;
     private long startTime;
+    private boolean verbose;
+    private SolverInstrumentation instrumentation = SolverInstrumentation.NONE;
 
     public BacktrackingSolverBitset(Board board) {
         this.board = board;
         this.size = board.getSize();
         this.colorCells = board.getColorMap();
-        this.colors = new ArrayList<>(colorCells.keySet());
+        this.colors = new ArrayList<>(board.getColors());
         this.solution = new int[colors.size()];
         Arrays.fill(solution, -1);
         
@@ -38,19 +41,33 @@ public class BacktrackingSolverBitset {
         
         this.steps = 0;
         this.backtracks = 0;
+        this.verbose = true;
+    }
+
+    //benchmarks and batch runs switch the console output off
+    public void setVerbose(boolean verbose) {
+        this.verbose = verbose;
+    }
+
+    public void setInstrumentation(SolverInstrumentation instrumentation) {
+        this.instrumentation = instrumentation;
     }
 
     public boolean solve() {
-        System.out.println("Starting backtracking solver optimized with bitsets for " + size + "x" + size + " board with " + colors.size() + " colors.");
+        if (verbose) {
+            System.out.println("Starting backtracking solver optimized with bitsets for " + size + "x" + size + " board with " + colors.size() + " colors.");
+        }
         startTime = System.currentTimeMillis();
         boolean result = placeQueens(0);
         long endTime = System.currentTimeMillis();
 
-        System.out.println("\nSolver stats:");
-        System.out.println("Steps: " + steps);
-        System.out.println("Backtracks: " + backtracks);
-        System.out.println("Time: " + (endTime - startTime) + " ms");
-        System.out.println("Solution found: " + result);
+        if (verbose) {
+            System.out.println("\nSolver stats:");
+            System.out.println("Steps: " + steps);
+            System.out.println("Backtracks: " + backtracks);
+            System.out.println("Time: " + (endTime - startTime) + " ms");
+            System.out.println("Solution found: " + result);
+        }
 
         return result;
     }
@@ -65,6 +82,7 @@ public class BacktrackingSolverBitset {
         List<int[]> cells = colorCells.get(color);
 
         steps++;
+        instrumentation.node();
 
         // Try every cell in this color region
         for (int i = 0; i < cells.size(); i++) {
@@ -73,10 +91,7 @@ public class BacktrackingSolverBitset {
 
             if (isValid(row, col)) {
                 // DO: Place queen
-                solution[colorIndex] = i;
-                occupied[row][col] = true;
-                rows.set(row); 
-                cols.set(col); 
+                placeQueen(colorIndex, i, row, col);
 
                 // RECURSE
                 if (placeQueens(colorIndex + 1)) {
@@ -85,18 +100,33 @@ public class BacktrackingSolverBitset {
 
                 // UNDO (Backtrack)
                 backtracks++;
-                solution[colorIndex] = -1;
-                occupied[row][col] = false;
-                rows.clear(row);
-                cols.clear(col);
+                removeQueen(colorIndex, row, col);
             }
         }
 
         return false;
     }
 
+    // package-private so the kernel benchmarks can build mid-search states (row/col passed in, no lookup)
+    void placeQueen(int colorIndex, int cellIdx, int row, int col) {
+        solution[colorIndex] = cellIdx;
+        occupied[row][col] = true;
+        rows.set(row);
+        cols.set(col);
+        instrumentation.trail(colorIndex + 1);
+    }
+
+    void removeQueen(int colorIndex, int row, int col) {
+        solution[colorIndex] = -1;
+        occupied[row][col] = false;
+        rows.clear(row);
+        cols.clear(col);
+    }
+
     // O(1) Check
-    private boolean isValid(int row, int col) {
+    boolean isValid(int row, int col) {
+        instrumentation.validityCheck();
+
         // 1. Check Row and Column (BitSet Speedup)
         if (rows.get(row) || cols.get(col)) {
             return false;
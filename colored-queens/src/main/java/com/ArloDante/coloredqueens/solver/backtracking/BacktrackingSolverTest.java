@@ -3,6 +3,7 @@ package com.ArloDante.coloredqueens.solver.backtracking;
 import java.util.*;
 
 import com.ArloDante.coloredqueens.objects.Board;
+import com.ArloDante.coloredqueens.solver.SolverInstrumentation;
 
 public class BacktrackingSolverTest {
 
@@ -12,7 +13,8 @@ public class BacktrackingSolverTest {
     private List<String> colors;
     private int[] solution;
     private boolean[][] occupied;
-    private long executionTime;
+    private long executionTimeNanos;
+    private SolverInstrumentation instrumentation = SolverInstrumentation.NONE;
     
     private Map<String, BitSet> validCells;
     private int[] colorCellCount;
@@ -45,7 +47,7 @@ public class BacktrackingSolverTest {
         this.board = board;
         this.size = this.board.getSize();
         this.colorCells = board.getColorMap();
-        this.colors = new ArrayList<>(colorCells.keySet());
+        this.colors = new ArrayList<>(board.getColors());
         this.solution = new int[colors.size()];
         Arrays.fill(solution, -1);
         this.occupied = new boolean[size][size];
@@ -64,17 +66,23 @@ public class BacktrackingSolverTest {
         this.pruneStack = new Stack<>();
     }
 
+    public void setInstrumentation(SolverInstrumentation instrumentation) {
+        this.instrumentation = instrumentation;
+    }
+
     public boolean solve() {
-        long startTime = System.currentTimeMillis();
+        long startTime = System.nanoTime();
         boolean result = placeQueens(0);
-        long endTime = System.currentTimeMillis();
-        this.executionTime = endTime - startTime;
+        long endTime = System.nanoTime();
+        this.executionTimeNanos = endTime - startTime;
         return result;
     }
 
     private boolean placeQueens(int colorIndex) {
         if (colorIndex == colors.size()) return true;
 
+        instrumentation.node();
+
         String color = colors.get(colorIndex);
         List<int[]> cells = colorCells.get(color);
         BitSet valid = validCells.get(color);
@@ -95,7 +103,10 @@ public class BacktrackingSolverTest {
             Queue<Pair<Integer, Integer>> queue = new LinkedList<>();
             for (int i = colorIndex + 1; i < colors.size(); i++) {
                 for (int j = colorIndex + 1; j < colors.size(); j++) {
-                    if (i != j) queue.add(new Pair<>(i, j));
+                    if (i != j) {
+                        queue.add(new Pair<>(i, j));
+                        instrumentation.arcEnqueue();
+                    }
                 }
             }
             propagateArcs(queue);
@@ -128,6 +139,7 @@ public class BacktrackingSolverTest {
                 int r2 = target[0];
                 int c2 = target[1];
 
+                instrumentation.validityCheck();
                 boolean conflict = (row == r2 || col == c2 || 
                                    Math.abs(row - r2) <= 1 && Math.abs(col - c2) <= 1);
                 
@@ -135,12 +147,15 @@ public class BacktrackingSolverTest {
                     valid.clear(i);
                     colorCellCount[colorIdx]--;
                     pruneStack.push(new PruneAction(color, i));
+                    instrumentation.prune();
+                    instrumentation.trail(pruneStack.size());
                 }
             }
         }
     }
 
     private boolean revise(int fromColorIdx, int toColorIdx) {
+        instrumentation.revise();
         boolean revised = false;
 
         String fromColor = colors.get(fromColorIdx);
@@ -180,6 +195,8 @@ public class BacktrackingSolverTest {
                 toValid.clear(i);
                 colorCellCount[toColorIdx]--;
                 pruneStack.push(new PruneAction(toColor, i));
+                instrumentation.prune();
+                instrumentation.trail(pruneStack.size());
                 revised = true;
             }
         }
@@ -188,24 +205,30 @@ public class BacktrackingSolverTest {
     }
 
     private void propagateArcs(Queue<Pair<Integer, Integer>> queue) {
+        instrumentation.propagationStart();
+
         while (!queue.isEmpty()) {
             Pair<Integer, Integer> arc = queue.poll();
             int fromColorIdx = arc.getKey();
             int toColorIdx = arc.getValue();
 
             if (revise(fromColorIdx, toColorIdx)) {
-                if (colorCellCount[toColorIdx] == 0) return;
+                if (colorCellCount[toColorIdx] == 0) break;
 
                 for (int k = 0; k < colors.size(); k++) {
                     if (k != toColorIdx && k != fromColorIdx) { 
                         queue.add(new Pair<>(toColorIdx, k)); 
+                        instrumentation.arcEnqueue();
                     }
                 }
             }
         }
+
+        instrumentation.propagationEnd();
     }
 
     private boolean conflicts(int[] cell1, int[] cell2) {
+        instrumentation.validityCheck();
         int r1 = cell1[0], c1 = cell1[1];
         int r2 = cell2[0], c2 = cell2[1];
         
@@ -246,7 +269,12 @@ public class BacktrackingSolverTest {
     }
 
     public long getExecutionTime() {
-        return executionTime;
+        return executionTimeNanos / 1_000_000;
+    }
+
+    //most boards up to 10x10 are solved in well under a millisecond
+    public long getExecutionTimeNanos() {
+        return executionTimeNanos;
     }
 
     public boolean isValid() {
@@ -0,0 +1,96 @@
+package com.ArloDante.coloredqueens.util;
+
+import java.util.*;
+
+import com.ArloDante.coloredqueens.objects.BoardFingerprint;
+import com.ArloDante.coloredqueens.objects.BoardView;
+
+//Immutable set of validated boards indexed by (size, level), safe to share between threads once published.
+//Boards that failed validation are kept apart with the reason.
+public final class BoardCorpus {
+    private final long[] keys; //sorted (size << 32 | level)
+    private final BoardView[] boards;
+    private final BoardFingerprint[] fingerprints;
+    private final Map<String, String> rejected;
+    private final long[] rejectedKeys; //sorted
+
+    BoardCorpus(long[] keys, BoardView[] boards, BoardFingerprint[] fingerprints, Map<String, String> rejected, long[] rejectedKeys) {
+        this.keys = keys;
+        this.boards = boards;
+        this.fingerprints = fingerprints;
+        this.rejected = Collections.unmodifiableMap(new TreeMap<>(rejected));
+        this.rejectedKeys = rejectedKeys;
+        Arrays.sort(this.rejectedKeys);
+    }
+
+    static long key(int size, int level) {
+        return ((long) size << 32) | (level & 0xFFFFFFFFL);
+    }
+
+    //null if the corpus has no such board
+    public BoardView get(int size, int level) {
+        int i = Arrays.binarySearch(keys, key(size, level));
+        return (i >= 0) ? boards[i] : null;
+    }
+
+    public int size() {
+        return boards.length;
+    }
+
+    public BoardView getBoard(int index) {
+        return boards[index];
+    }
+
+    public BoardFingerprint getFingerprint(int index) {
+        return fingerprints[index];
+    }
+
+    public int getSize(int index) {
+        return (int) (keys[index] >> 32);
+    }
+
+    public int getLevel(int index) {
+        return (int) keys[index];
+    }
+
+    public SortedSet<Integer> getSizes() {
+        SortedSet<Integer> sizes = new TreeSet<>();
+        for (long key : keys) sizes.add((int) (key >> 32));
+        return sizes;
+    }
+
+    //groups of boards that are rotations, reflections or recolorings of each other, as "NxN_levelL" names
+    public List<List<String>> getDuplicates() {
+        Map<BoardFingerprint, List<String>> groups = new LinkedHashMap<>();
+        for (int i = 0; i < boards.length; i++) {
+            groups.computeIfAbsent(fingerprints[i], k -> new ArrayList<>())
+                    .add(getSize(i) + "x" + getSize(i) + "_level" + getLevel(i));
+        }
+
+        List<List<String>> duplicates = new ArrayList<>();
+        for (List<String> group : groups.values()) {
+            if (group.size() > 1) duplicates.add(group);
+        }
+        return duplicates;
+    }
+
+    //true if the board exists but failed validation, it must never be handed to a solver
+    public boolean isRejected(int size, int level) {
+        return Arrays.binarySearch(rejectedKeys, key(size, level)) >= 0;
+    }
+
+    //the same corpus without the boards, for keeping only the validation result once the boards are not needed
+    public BoardCorpus rejectedOnly() {
+        return new BoardCorpus(new long[0], new BoardView[0], new BoardFingerprint[0], rejected, rejectedKeys.clone());
+    }
+
+    //sorted (size << 32 | level) of the rejected boards
+    long[] getRejectedKeys() {
+        return rejectedKeys.clone();
+    }
+
+    //board name -> why it was not accepted
+    public Map<String, String> getRejected() {
+        return rejected;
+    }
+}
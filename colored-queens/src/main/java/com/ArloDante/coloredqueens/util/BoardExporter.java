@@ -0,0 +1,30 @@
+package com.ArloDante.coloredqueens.util;
+
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.FileWriter;
+import java.io.IOException;
+
+import com.ArloDante.coloredqueens.objects.BoardView;
+
+//Writes a board as the JSON array of cells that BoardImporter reads (same layout as the scraped files)
+public class BoardExporter {
+
+    public static void write(BoardView board, File file) throws IOException {
+        int size = board.getSize();
+        try (BufferedWriter out = new BufferedWriter(new FileWriter(file))) {
+            out.write("[\n");
+            for (int row = 0; row < size; row++) {
+                for (int col = 0; col < size; col++) {
+                    int rgb = board.getRegionRgb(board.getRegion(row, col));
+                    out.write("  {\n");
+                    out.write("    \"row\": " + row + ",\n");
+                    out.write("    \"col\": " + col + ",\n");
+                    out.write("    \"color\": \"rgba(" + ((rgb >> 16) & 0xFF) + ", " + ((rgb >> 8) & 0xFF) + ", " + (rgb & 0xFF) + ", 1)\"\n");
+                    out.write((row == size - 1 && col == size - 1) ? "  }\n" : "  },\n");
+                }
+            }
+            out.write("]");
+        }
+    }
+}
@@ -1,19 +1,27 @@
 package com.ArloDante.coloredqueens.util;
 
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
 
 import java.io.File;
 import java.io.IOException;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
 
+import com.ArloDante.coloredqueens.jfr.BoardImportEvent;
+import com.ArloDante.coloredqueens.objects.ArrayBoard;
+import com.ArloDante.coloredqueens.objects.BoardView;
 import com.ArloDante.coloredqueens.objects.Cell;
 
 //Membaca json file untuk mengambil papan hasil scraping
 public class BoardImporter {
 
-    private static final String BOARD_FOLDER = "boards";
+    static final String BOARD_FOLDER = "boards";
+    private static final JsonFactory JSON = new JsonFactory();
 
     public static List<Cell> importBoard(int size, int level) throws IOException {
         String filename = String.format("%s/%dx%d_level%d.json", BOARD_FOLDER, size, size, level);
@@ -23,6 +31,22 @@ public class BoardImporter {
             throw new IOException("Board file not found: " + filename);
         }
 
+        BoardImportEvent event = new BoardImportEvent();
+        event.begin();
+
+        List<Cell> board = importBoard(file);
+
+        event.end();
+        if (event.shouldCommit()) {
+            event.set(size, level, board.size());
+            event.commit();
+        }
+
+        return board;
+    }
+    
+    //any board file in the scraper format, whatever its name
+    public static List<Cell> importBoard(File file) throws IOException {
         ObjectMapper mapper = new ObjectMapper();
         JsonNode root = mapper.readTree(file);
         List<Cell> board = new ArrayList<>();
@@ -38,7 +62,121 @@ public class BoardImporter {
 
         return board;
     }
-    
+
+    //Streaming import for the batch runner and bulk loads: reads the parser tokens directly, no JsonNode tree,
+    //no Strings per cell, the color is parsed from the parser's char buffer into one 0xRRGGBB int
+    public static BoardView importView(int size, int level) throws IOException {
+        File file = new File(String.format("%s/%dx%d_level%d.json", BOARD_FOLDER, size, size, level));
+        if (!file.exists()) {
+            throw new IOException("Board file not found: " + file.getPath());
+        }
+
+        BoardImportEvent event = new BoardImportEvent();
+        event.begin();
+
+        BoardView board = importView(file);
+
+        event.end();
+        if (event.shouldCommit()) {
+            event.set(size, level, board.getSize() * board.getSize());
+            event.commit();
+        }
+
+        return board;
+    }
+
+    public static BoardView importView(File file) throws IOException {
+        //cells can come in any order, collect them first and place them once the size is known
+        int[] rows = new int[256];
+        int[] cols = new int[256];
+        int[] colors = new int[256];
+        int count = 0;
+        int maxIndex = 0;
+
+        try (JsonParser parser = JSON.createParser(file)) {
+            if (parser.nextToken() != JsonToken.START_ARRAY) {
+                throw new IOException("Expected an array of cells in " + file);
+            }
+
+            while (parser.nextToken() == JsonToken.START_OBJECT) {
+                int row = -1;
+                int col = -1;
+                int rgb = -1;
+
+                while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                    String field = parser.currentName(); //field names are interned by the parser
+                    parser.nextToken();
+
+                    switch (field) {
+                        case "row": row = parser.getIntValue(); break;
+                        case "col": col = parser.getIntValue(); break;
+                        case "color": rgb = parseRgba(parser.getTextCharacters(), parser.getTextOffset(), parser.getTextLength()); break;
+                        default: parser.skipChildren();
+                    }
+                }
+
+                if (row < 0 || col < 0 || rgb < 0) {
+                    throw new IOException("Incomplete cell " + count + " in " + file);
+                }
+                if (count == rows.length) {
+                    rows = Arrays.copyOf(rows, count * 2);
+                    cols = Arrays.copyOf(cols, count * 2);
+                    colors = Arrays.copyOf(colors, count * 2);
+                }
+                rows[count] = row;
+                cols[count] = col;
+                colors[count] = rgb;
+                count++;
+                maxIndex = Math.max(maxIndex, Math.max(row, col));
+            }
+        }
+
+        int size = maxIndex + 1;
+        if (count != size * size) {
+            throw new IOException(file + " has " + count + " cells, a " + size + "x" + size + " board needs " + size * size);
+        }
+
+        int[] grid = new int[size * size];
+        Arrays.fill(grid, -1);
+        for (int i = 0; i < count; i++) {
+            grid[rows[i] * size + cols[i]] = colors[i];
+        }
+        for (int i = 0; i < grid.length; i++) {
+            if (grid[i] == -1) throw new IOException(file + " has no cell at [" + i / size + "," + i % size + "]");
+        }
+
+        return ArrayBoard.fromRgb(size, grid);
+    }
+
+    //"rgba(r, g, b, a)" or "rgb(r, g, b)" -> 0xRRGGBB, alpha is ignored
+    static int parseRgba(char[] buffer, int offset, int length) throws IOException {
+        int end = offset + length;
+        int i = offset;
+        while (i < end && buffer[i] != '(') i++;
+
+        int rgb = 0;
+        for (int channel = 0; channel < 3; channel++) {
+            i++;
+            while (i < end && buffer[i] == ' ') i++;
+
+            int value = 0;
+            int digits = 0;
+            while (i < end && buffer[i] >= '0' && buffer[i] <= '9') {
+                value = value * 10 + (buffer[i] - '0');
+                digits++;
+                i++;
+            }
+            while (i < end && buffer[i] == ' ') i++;
+
+            if (digits == 0 || value > 255 || i >= end || (buffer[i] != ',' && buffer[i] != ')')) {
+                throw new IOException("Invalid color " + new String(buffer, offset, length));
+            }
+            rgb = (rgb << 8) | value;
+        }
+
+        return rgb;
+    }
+
     private static int[] parseRgba(String rgbaString) {
         rgbaString = rgbaString.replace("rgba(", "").replace(")", "");
         String[] parts = rgbaString.split(",");
@@ -0,0 +1,183 @@
+package com.ArloDante.coloredqueens.util;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+import com.ArloDante.coloredqueens.objects.BoardView;
+
+//Parsed boards keyed by (size, level), shared by all threads and bounded to a number of boards.
+//A board is loaded once even if several threads ask for it at the same time, the least recently used board
+//is dropped when the repository is full. Boards come from the packed corpus if one is given, else from the JSON files.
+public class BoardRepository implements AutoCloseable {
+    private int capacity;
+    private PackedCorpus corpus;
+
+    private ConcurrentHashMap<Long, Entry> boards = new ConcurrentHashMap<>();
+    private volatile long[] rejected = new long[0]; //sorted keys of boards a preloaded corpus rejected
+    private AtomicLong clock = new AtomicLong();
+    private Object evictionLock = new Object();
+
+    private LongAdder hits = new LongAdder();
+    private LongAdder misses = new LongAdder();
+    private LongAdder evictions = new LongAdder();
+
+    private static class Entry {
+        final BoardView board;
+        volatile long lastAccess;
+
+        Entry(BoardView board, long lastAccess) {
+            this.board = board;
+            this.lastAccess = lastAccess;
+        }
+    }
+
+    public BoardRepository(int capacity) {
+        this(capacity, null);
+    }
+
+    public BoardRepository(int capacity, PackedCorpus corpus) {
+        this.capacity = Math.max(1, capacity);
+        this.corpus = corpus;
+    }
+
+    //uses boards.cqc from the working directory when it exists, like BoardImporter uses boards/
+    public static BoardRepository open(int capacity) throws IOException {
+        File packed = new File(PackedCorpus.DEFAULT_FILE);
+        return new BoardRepository(capacity, packed.exists() ? new PackedCorpus(packed) : null);
+    }
+
+    public BoardView get(int size, int level) throws IOException {
+        long key = key(size, level);
+        Entry entry = boards.get(key);
+        if (entry != null) {
+            entry.lastAccess = clock.incrementAndGet();
+            hits.increment();
+            return entry.board;
+        }
+
+        //a thread that waited for another thread's load of the same board counts as a hit
+        boolean[] loaded = new boolean[1];
+        try {
+            entry = boards.computeIfAbsent(key, k -> {
+                loaded[0] = true;
+                try {
+                    return new Entry(load(size, level), clock.incrementAndGet());
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+
+        if (loaded[0]) {
+            misses.increment();
+        } else {
+            entry.lastAccess = clock.incrementAndGet();
+            hits.increment();
+        }
+
+        if (boards.size() > capacity) evict();
+        return entry.board;
+    }
+
+    //loads the given boards ahead of time, missing files are skipped
+    public void preload(int[] sizes, int fromLevel, int toLevel) {
+        for (int size : sizes) {
+            for (int level = fromLevel; level <= toLevel; level++) {
+                try {
+                    get(size, level);
+                } catch (IOException e) {
+                    //not every size has every level
+                }
+            }
+        }
+    }
+
+    //takes boards from a bulk-loaded corpus, as many as the capacity allows.
+    //boards the corpus rejected are refused from then on instead of being loaded again unchecked
+    public void preload(BoardCorpus corpus) {
+        rejected = corpus.getRejectedKeys();
+        for (int i = 0; i < corpus.size() && boards.size() < capacity; i++) {
+            boards.putIfAbsent(key(corpus.getSize(i), corpus.getLevel(i)),
+                    new Entry(corpus.getBoard(i), clock.incrementAndGet()));
+        }
+    }
+
+    public boolean isRejected(int size, int level) {
+        return Arrays.binarySearch(rejected, key(size, level)) >= 0;
+    }
+
+    private BoardView load(int size, int level) throws IOException {
+        if (isRejected(size, level)) {
+            throw new IOException("Invalid board " + size + "x" + size + " level " + level + " (rejected by validation)");
+        }
+        if (corpus != null) {
+            BoardView board = corpus.getBoard(size, level);
+            if (board != null) return board;
+        }
+        return BoardImporter.importView(size, level);
+    }
+
+    //exact LRU: drop the entries with the oldest access until the repository fits again
+    private void evict() {
+        synchronized (evictionLock) {
+            while (boards.size() > capacity) {
+                Map.Entry<Long, Entry> oldest = null;
+                for (Map.Entry<Long, Entry> e : boards.entrySet()) {
+                    if (oldest == null || e.getValue().lastAccess < oldest.getValue().lastAccess) {
+                        oldest = e;
+                    }
+                }
+                if (oldest == null) return;
+                if (boards.remove(oldest.getKey(), oldest.getValue())) evictions.increment();
+            }
+        }
+    }
+
+    private static long key(int size, int level) {
+        return ((long) size << 32) | (level & 0xFFFFFFFFL);
+    }
+
+    public int size() {
+        return boards.size();
+    }
+
+    public int getCapacity() {
+        return capacity;
+    }
+
+    public long getHits() {
+        return hits.sum();
+    }
+
+    public long getMisses() {
+        return misses.sum();
+    }
+
+    public long getEvictions() {
+        return evictions.sum();
+    }
+
+    public double getHitRate() {
+        long total = getHits() + getMisses();
+        return total > 0 ? getHits() / (double) total : 0;
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (corpus != null) corpus.close();
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%d boards cached (capacity %d), %d hits, %d misses (%.1f%% hits), %d evictions",
+                size(), capacity, getHits(), getMisses(), getHitRate() * 100, getEvictions());
+    }
+}
@@ -0,0 +1,203 @@
+package com.ArloDante.coloredqueens.util;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.*;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import com.ArloDante.coloredqueens.objects.ArrayBoard;
+import com.ArloDante.coloredqueens.objects.BoardFingerprint;
+import com.ArloDante.coloredqueens.objects.BoardView;
+
+//Loads a whole corpus at once, one virtual thread per board, so startup is not one JSON file after another.
+//Every board is validated (n x n cells, exactly n colors, every color one connected region) and copied
+//into an ArrayBoard with its fingerprint, the result is published as an immutable BoardCorpus.
+public class CorpusLoader {
+    private static final Pattern FILE_NAME = Pattern.compile("(\\d+)x\\1_level(\\d+)\\.json");
+
+    private static class Loaded {
+        long key;
+        String name;
+        BoardView board;
+        BoardFingerprint fingerprint;
+        String error;
+    }
+
+    //boards.cqc from the working directory when it exists, else the boards/ folder
+    public static BoardCorpus open() throws IOException {
+        File packed = new File(PackedCorpus.DEFAULT_FILE);
+        if (packed.exists()) {
+            try (PackedCorpus corpus = new PackedCorpus(packed)) {
+                return loadPacked(corpus);
+            }
+        }
+        return loadDirectory(new File(BoardImporter.BOARD_FOLDER));
+    }
+
+    //every NxN_levelL.json in the directory
+    public static BoardCorpus loadDirectory(File boardsDir) throws IOException {
+        File[] files = boardsDir.listFiles((dir, name) -> FILE_NAME.matcher(name).matches());
+        if (files == null) {
+            throw new IOException("Not a directory: " + boardsDir);
+        }
+
+        List<Loaded> loaded;
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            List<Future<Loaded>> futures = new ArrayList<>(files.length);
+            for (File file : files) {
+                futures.add(executor.submit(() -> loadFile(file)));
+            }
+            loaded = collect(futures);
+        }
+
+        return publish(loaded);
+    }
+
+    //everything in a packed corpus, copied out of the mapping
+    public static BoardCorpus loadPacked(PackedCorpus packed) throws IOException {
+        List<Loaded> loaded;
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            List<Future<Loaded>> futures = new ArrayList<>(packed.size());
+            for (int i = 0; i < packed.size(); i++) {
+                int index = i;
+                futures.add(executor.submit(() -> check(BoardCorpus.key(packed.getSize(index), packed.getLevel(index)),
+                        packed.getSize(index) + "x" + packed.getSize(index) + "_level" + packed.getLevel(index),
+                        ArrayBoard.copyOf(packed.getBoard(index)))));
+            }
+            loaded = collect(futures);
+        }
+
+        return publish(loaded);
+    }
+
+    private static Loaded loadFile(File file) {
+        Matcher m = FILE_NAME.matcher(file.getName());
+        m.matches();
+        long key = BoardCorpus.key(Integer.parseInt(m.group(1)), Integer.parseInt(m.group(2)));
+
+        try {
+            return check(key, file.getName(), BoardImporter.importView(file));
+        } catch (IOException | RuntimeException e) {
+            Loaded result = new Loaded();
+            result.key = key;
+            result.name = file.getName();
+            result.error = e.getMessage();
+            return result;
+        }
+    }
+
+    private static Loaded check(long key, String name, BoardView board) {
+        Loaded result = new Loaded();
+        result.key = key;
+        result.name = name;
+        result.error = validate(board, (int) (key >> 32));
+        if (result.error == null) {
+            result.board = board;
+            result.fingerprint = BoardFingerprint.of(board);
+        }
+        return result;
+    }
+
+    private static List<Loaded> collect(List<Future<Loaded>> futures) throws IOException {
+        List<Loaded> loaded = new ArrayList<>(futures.size());
+        for (Future<Loaded> future : futures) {
+            try {
+                loaded.add(future.get());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IOException("Interrupted while loading boards", e);
+            } catch (ExecutionException e) {
+                throw new IOException("Loading a board failed", e.getCause());
+            }
+        }
+        return loaded;
+    }
+
+    private static BoardCorpus publish(List<Loaded> loaded) {
+        loaded.sort(Comparator.comparingLong(l -> l.key));
+
+        List<Loaded> accepted = new ArrayList<>();
+        Map<String, String> rejected = new HashMap<>();
+        List<Long> rejectedKeys = new ArrayList<>();
+        for (Loaded l : loaded) {
+            if (l.error == null) {
+                accepted.add(l);
+            } else {
+                rejected.put(l.name, l.error);
+                rejectedKeys.add(l.key);
+            }
+        }
+
+        long[] keys = new long[accepted.size()];
+        BoardView[] boards = new BoardView[accepted.size()];
+        BoardFingerprint[] fingerprints = new BoardFingerprint[accepted.size()];
+        for (int i = 0; i < keys.length; i++) {
+            keys[i] = accepted.get(i).key;
+            boards[i] = accepted.get(i).board;
+            fingerprints[i] = accepted.get(i).fingerprint;
+        }
+        return new BoardCorpus(keys, boards, fingerprints, rejected, rejectedKeys.stream().mapToLong(Long::longValue).toArray());
+    }
+
+    //null if the board is a valid puzzle of the expected size, otherwise the reason
+    public static String validate(BoardView board, int expectedSize) {
+        int size = board.getSize();
+        if (size != expectedSize) {
+            return "expected " + expectedSize + "x" + expectedSize + " but the cells form " + size + "x" + size;
+        }
+        if (board.getRegionCount() != size) {
+            return board.getRegionCount() + " colors on a " + size + "x" + size + " board";
+        }
+
+        //flood fill every region from its first cell, it has to reach all cells of that color
+        int[] regionCells = new int[size];
+        int[] firstCell = new int[size];
+        Arrays.fill(firstCell, -1);
+        for (int c = 0; c < size * size; c++) {
+            int region = board.getRegion(c / size, c % size);
+            regionCells[region]++;
+            if (firstCell[region] == -1) firstCell[region] = c;
+        }
+
+        boolean[] seen = new boolean[size * size];
+        int[] stack = new int[size * size];
+        for (int region = 0; region < size; region++) {
+            int reached = 0;
+            int top = 0;
+            stack[top++] = firstCell[region];
+            seen[firstCell[region]] = true;
+
+            while (top > 0) {
+                int c = stack[--top];
+                reached++;
+                int row = c / size;
+                int col = c % size;
+
+                if (row > 0) top = visit(board, region, row - 1, col, seen, stack, top);
+                if (row < size - 1) top = visit(board, region, row + 1, col, seen, stack, top);
+                if (col > 0) top = visit(board, region, row, col - 1, seen, stack, top);
+                if (col < size - 1) top = visit(board, region, row, col + 1, seen, stack, top);
+            }
+
+            if (reached != regionCells[region]) {
+                return "color " + String.format("#%06X", board.getRegionRgb(region)) + " is split into several parts";
+            }
+        }
+
+        return null;
+    }
+
+    private static int visit(BoardView board, int region, int row, int col, boolean[] seen, int[] stack, int top) {
+        int c = row * board.getSize() + col;
+        if (!seen[c] && board.getRegion(row, col) == region) {
+            seen[c] = true;
+            stack[top++] = c;
+        }
+        return top;
+    }
+}
@@ -0,0 +1,113 @@
+package com.ArloDante.coloredqueens.util;
+
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.util.*;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import com.ArloDante.coloredqueens.objects.Cell;
+
+//Packs every boards/NxN_levelL.json into one binary corpus for PackedCorpus (layout described there).
+//Usage: CorpusPacker [boardsDir] [outputFile]   (defaults: boards boards.cqc)
+public class CorpusPacker {
+    private static final Pattern FILE_NAME = Pattern.compile("(\\d+)x\\1_level(\\d+)\\.json");
+
+    public static void main(String[] args) throws IOException {
+        File boardsDir = new File(args.length > 0 ? args[0] : "boards");
+        File output = new File(args.length > 1 ? args[1] : PackedCorpus.DEFAULT_FILE);
+
+        long start = System.currentTimeMillis();
+        int count = pack(boardsDir, output);
+        System.out.println("Packed " + count + " boards into " + output.getPath() + " ("
+                + output.length() / 1024 + " KB, " + (System.currentTimeMillis() - start) + " ms)");
+    }
+
+    public static int pack(File boardsDir, File output) throws IOException {
+        File[] files = boardsDir.listFiles((dir, name) -> FILE_NAME.matcher(name).matches());
+        if (files == null || files.length == 0) {
+            throw new IOException("No board files in " + boardsDir);
+        }
+
+        //sorted by (size, level) so the reader can binary search the index
+        TreeMap<Long, File> sorted = new TreeMap<>();
+        for (File file : files) {
+            Matcher m = FILE_NAME.matcher(file.getName());
+            m.matches();
+            int size = Integer.parseInt(m.group(1));
+            int level = Integer.parseInt(m.group(2));
+            sorted.put(((long) size << 16) | level, file);
+        }
+
+        ByteArrayOutputStream records = new ByteArrayOutputStream();
+        DataOutputStream recordOut = new DataOutputStream(records);
+        int[] offsets = new int[sorted.size()];
+        int indexEnd = PackedCorpus.HEADER_BYTES + sorted.size() * PackedCorpus.INDEX_ENTRY_BYTES;
+
+        int i = 0;
+        for (Map.Entry<Long, File> entry : sorted.entrySet()) {
+            int size = (int) (entry.getKey() >> 16);
+            offsets[i++] = indexEnd + recordOut.size();
+            writeRecord(recordOut, size, BoardImporter.importBoard(entry.getValue()));
+        }
+
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(output)))) {
+            out.writeInt(PackedCorpus.MAGIC);
+            out.writeInt(sorted.size());
+
+            i = 0;
+            for (long key : sorted.keySet()) {
+                out.writeShort((int) (key >> 16));
+                out.writeShort((int) (key & 0xFFFF));
+                out.writeInt(offsets[i++]);
+            }
+            records.writeTo(out);
+        }
+
+        return sorted.size();
+    }
+
+    //region ids in order of first appearance row by row, the palette holds their colors
+    private static void writeRecord(DataOutputStream out, int size, List<Cell> cells) throws IOException {
+        int[] ids = new int[size * size];
+        Arrays.fill(ids, -1);
+        Map<Integer, Integer> regionOf = new HashMap<>();
+        List<Integer> palette = new ArrayList<>();
+
+        Cell[] grid = new Cell[size * size];
+        for (Cell cell : cells) {
+            grid[cell.getRow() * size + cell.getCol()] = cell;
+        }
+
+        for (int c = 0; c < grid.length; c++) {
+            if (grid[c] == null) {
+                throw new IOException("Board " + size + "x" + size + " has no cell at [" + c / size + "," + c % size + "]");
+            }
+            int rgb = (grid[c].getR() << 16) | (grid[c].getG() << 8) | grid[c].getB();
+            Integer region = regionOf.get(rgb);
+            if (region == null) {
+                region = palette.size();
+                regionOf.put(rgb, region);
+                palette.add(rgb);
+            }
+            ids[c] = region;
+        }
+
+        int idBytes = (palette.size() <= 256) ? 1 : 2;
+        out.writeShort(size);
+        out.writeShort(palette.size());
+        out.writeByte(idBytes);
+        for (int rgb : palette) out.writeInt(rgb);
+        for (int id : ids) {
+            if (idBytes == 1) {
+                out.writeByte(id);
+            } else {
+                out.writeShort(id);
+            }
+        }
+    }
+}
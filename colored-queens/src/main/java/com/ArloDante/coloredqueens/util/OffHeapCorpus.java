@@ -0,0 +1,249 @@
+package com.ArloDante.coloredqueens.util;
+
+import java.lang.foreign.Arena;
+import java.lang.foreign.MemorySegment;
+import java.lang.foreign.ValueLayout;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import com.ArloDante.coloredqueens.objects.BoardView;
+import com.ArloDante.coloredqueens.objects.Cell;
+
+//Boards kept outside the Java heap, for sweeps over millions of generated boards without GC pressure.
+//Records are appended into large MemorySegment chunks of one shared Arena, the index (record positions) lives
+//off-heap as well, so the heap only holds the chunk references. Next to the region ids every record carries the
+//region masks the bitmask solvers start from: for every region and row the columns of that region as longs,
+//handed out as they are by BoardView.getRegionColumns (SolutionCounter copies them instead of scanning cells).
+//Boards are read through BoardView, a view reads straight from the segment. Appends are serialized, any number of
+//threads can read boards that were already added. Everything is freed at once by close().
+//
+//Record layout (8-byte aligned):
+//  int size, int regionCount, int maskWords, int unused
+//  regionCount * int rgb, size * size * short region id (row by row), padding to 8
+//  regionCount * size * maskWords * long columns of the region in that row
+public class OffHeapCorpus implements AutoCloseable {
+    static final long CHUNK_BYTES = 64L << 20;
+    static final int INDEX_CHUNK_ENTRIES = 1 << 20;
+    private static final int HEADER_BYTES = 16;
+
+    private final Arena arena = Arena.ofShared();
+
+    private volatile MemorySegment[] chunks = new MemorySegment[0];
+    private volatile MemorySegment[] indexChunks = new MemorySegment[0];
+    private volatile int count;
+
+    private long chunkUsed;
+    private long bytes;
+
+    //copies every board of the corpus, in its index order
+    public static OffHeapCorpus of(BoardCorpus corpus) {
+        OffHeapCorpus offHeap = new OffHeapCorpus();
+        for (int i = 0; i < corpus.size(); i++) {
+            offHeap.add(corpus.getBoard(i));
+        }
+        return offHeap;
+    }
+
+    public int add(BoardView board) {
+        int size = board.getSize();
+        int[] regions = new int[size * size];
+        for (int c = 0; c < regions.length; c++) {
+            regions[c] = board.getRegion(c / size, c % size);
+        }
+        int[] palette = new int[board.getRegionCount()];
+        for (int r = 0; r < palette.length; r++) {
+            palette[r] = board.getRegionRgb(r);
+        }
+        return add(size, regions, palette);
+    }
+
+    //regions: one id per cell row by row (numbered by first appearance like every BoardView), palette: rgb per id.
+    //returns the index of the new board. A record that does not fit its layout is rejected before anything is written
+    public synchronized int add(int size, int[] regions, int[] palette) {
+        validate(size, regions, palette);
+        int regionCount = palette.length;
+        int words = maskWords(size);
+        long length = recordBytes(size, regionCount);
+
+        MemorySegment chunk = chunkFor(length);
+        long base = chunkUsed;
+        chunkUsed += length;
+        bytes += length;
+
+        //every write goes through the slice, a wrong offset fails here instead of landing in the next board
+        MemorySegment record = chunk.asSlice(base, length);
+        record.set(ValueLayout.JAVA_INT, 0, size);
+        record.set(ValueLayout.JAVA_INT, 4, regionCount);
+        record.set(ValueLayout.JAVA_INT, 8, words);
+        for (int r = 0; r < regionCount; r++) {
+            record.set(ValueLayout.JAVA_INT, HEADER_BYTES + r * 4L, palette[r]);
+        }
+
+        long ids = idsOffset(regionCount);
+        long masks = masksOffset(size, regionCount);
+        for (int c = 0; c < regions.length; c++) {
+            int region = regions[c];
+            int row = c / size;
+            int col = c % size;
+            record.set(ValueLayout.JAVA_SHORT, ids + c * 2L, (short) region);
+
+            long word = masks + (((long) region * size + row) * words + (col >>> 6)) * 8;
+            record.set(ValueLayout.JAVA_LONG, word, record.get(ValueLayout.JAVA_LONG, word) | (1L << (col & 63)));
+        }
+
+        //the index entry goes in before count is raised, readers never see a half written board
+        int index = count;
+        indexChunkFor(index).set(ValueLayout.JAVA_LONG, (index % INDEX_CHUNK_ENTRIES) * 8L,
+                ((long) (chunks.length - 1) << 40) | base);
+        count = index + 1;
+        return index;
+    }
+
+    //region ids are stored as shorts and index the palette and the masks, so they must stay inside both
+    private static void validate(int size, int[] regions, int[] palette) {
+        if (size < 1) throw new IllegalArgumentException("Board size must be positive: " + size);
+        if (regions.length != (long) size * size) {
+            throw new IllegalArgumentException("Expected " + (long) size * size + " region ids for " + size + "x" + size + ", got " + regions.length);
+        }
+        if (palette.length > Short.MAX_VALUE + 1) {
+            throw new IllegalArgumentException("At most " + (Short.MAX_VALUE + 1) + " regions fit a short id: " + palette.length);
+        }
+        for (int c = 0; c < regions.length; c++) {
+            if (regions[c] < 0 || regions[c] >= palette.length) {
+                throw new IllegalArgumentException("Region id " + regions[c] + " at cell " + c + " outside palette of " + palette.length);
+            }
+        }
+    }
+
+    private MemorySegment chunkFor(long length) {
+        MemorySegment[] current = chunks;
+        if (current.length > 0 && chunkUsed + length <= current[current.length - 1].byteSize()) {
+            return current[current.length - 1];
+        }
+
+        //a board larger than a chunk gets a chunk of its own
+        MemorySegment chunk = arena.allocate(Math.max(CHUNK_BYTES, length), 8);
+        MemorySegment[] grown = Arrays.copyOf(current, current.length + 1);
+        grown[current.length] = chunk;
+        chunks = grown;
+        chunkUsed = 0;
+        return chunk;
+    }
+
+    private MemorySegment indexChunkFor(int index) {
+        MemorySegment[] current = indexChunks;
+        int chunk = index / INDEX_CHUNK_ENTRIES;
+        if (chunk < current.length) return current[chunk];
+
+        MemorySegment[] grown = Arrays.copyOf(current, chunk + 1);
+        grown[chunk] = arena.allocate(INDEX_CHUNK_ENTRIES * 8L, 8);
+        indexChunks = grown;
+        return grown[chunk];
+    }
+
+    static int maskWords(int size) {
+        return (size + 63) >>> 6;
+    }
+
+    private static long idsOffset(int regionCount) {
+        return HEADER_BYTES + regionCount * 4L;
+    }
+
+    private static long masksOffset(int size, int regionCount) {
+        return (idsOffset(regionCount) + (long) size * size * 2 + 7) & ~7L;
+    }
+
+    static long recordBytes(int size, int regionCount) {
+        return masksOffset(size, regionCount) + (long) regionCount * size * maskWords(size) * 8;
+    }
+
+    public OffHeapBoard getBoard(int index) {
+        if (index < 0 || index >= count) {
+            throw new IndexOutOfBoundsException("Board " + index + " of " + count);
+        }
+        long entry = indexChunks[index / INDEX_CHUNK_ENTRIES].get(ValueLayout.JAVA_LONG, (index % INDEX_CHUNK_ENTRIES) * 8L);
+        MemorySegment chunk = chunks[(int) (entry >>> 40)];
+        long base = entry & ((1L << 40) - 1);
+
+        int size = chunk.get(ValueLayout.JAVA_INT, base);
+        int regionCount = chunk.get(ValueLayout.JAVA_INT, base + 4);
+        return new OffHeapBoard(chunk.asSlice(base, recordBytes(size, regionCount)), size, regionCount);
+    }
+
+    public int size() {
+        return count;
+    }
+
+    //bytes taken by the board records (without the index)
+    public synchronized long getBytes() {
+        return bytes;
+    }
+
+    @Override
+    public void close() {
+        arena.close();
+    }
+
+    //one board record, reads straight from off-heap memory
+    public static class OffHeapBoard implements BoardView {
+        private MemorySegment record;
+        private int size;
+        private int regionCount;
+        private int words;
+        private long idsStart;
+        private long masksStart;
+
+        OffHeapBoard(MemorySegment record, int size, int regionCount) {
+            this.record = record;
+            this.size = size;
+            this.regionCount = regionCount;
+            this.words = maskWords(size);
+            this.idsStart = idsOffset(regionCount);
+            this.masksStart = masksOffset(size, regionCount);
+        }
+
+        @Override
+        public int getSize() {
+            return size;
+        }
+
+        @Override
+        public int getRegionCount() {
+            return regionCount;
+        }
+
+        @Override
+        public int getRegion(int row, int col) {
+            return record.get(ValueLayout.JAVA_SHORT, idsStart + (row * size + col) * 2L);
+        }
+
+        @Override
+        public int getRegionRgb(int region) {
+            return record.get(ValueLayout.JAVA_INT, HEADER_BYTES + region * 4L);
+        }
+
+        @Override
+        public long getRegionColumns(int region, int row) {
+            if (size > 64) throw new UnsupportedOperationException("Single-word masks only up to 64x64: " + size);
+            return getRegionColumns(region, row, 0);
+        }
+
+        //columns of the region in that row, word w covers columns 64 * w .. 64 * w + 63
+        public long getRegionColumns(int region, int row, int word) {
+            return record.get(ValueLayout.JAVA_LONG, masksStart + (((long) region * size + row) * words + word) * 8);
+        }
+
+        @Override
+        public List<Cell> toCells() {
+            List<Cell> cells = new ArrayList<>(size * size);
+            for (int row = 0; row < size; row++) {
+                for (int col = 0; col < size; col++) {
+                    int rgb = getRegionRgb(getRegion(row, col));
+                    cells.add(new Cell(row, col, (rgb >> 16) & 0xFF, (rgb >> 8) & 0xFF, rgb & 0xFF));
+                }
+            }
+            return cells;
+        }
+    }
+}
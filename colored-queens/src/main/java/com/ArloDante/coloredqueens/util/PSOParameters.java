@@ -0,0 +1,56 @@
+package com.ArloDante.coloredqueens.util;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.FileReader;
+import java.io.IOException;
+
+//Hyperparameter PSO yang dibaca dari file key=value (parameters.txt atau params/*.txt)
+public class PSOParameters {
+    public int iterations;
+    public int particles;
+    public int neighborhoods;
+    public double c1;
+    public double c2;
+    public double inertia;
+    public double w1;
+    public double w2;
+    public int maxStagnation;
+    public int repairSteps;
+    public boolean prunedInit;
+    public boolean adaptive;
+    public String telemetry; //file for per-iteration telemetry (.csv or binary), null to disable
+
+    public static PSOParameters read(File file) throws IOException {
+        PSOParameters params = new PSOParameters();
+
+        try (BufferedReader reader = new BufferedReader(new FileReader(file))) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                String[] parts = line.split("=");
+                if (parts.length != 2) continue;
+
+                String key = parts[0].trim();
+                String value = parts[1].trim();
+
+                switch (key) {
+                    case "iterations": params.iterations = Integer.parseInt(value); break;
+                    case "particles": params.particles = Integer.parseInt(value); break;
+                    case "neighborhoods": params.neighborhoods = Integer.parseInt(value); break;
+                    case "c1": params.c1 = Double.parseDouble(value); break;
+                    case "c2": params.c2 = Double.parseDouble(value); break;
+                    case "inertia": params.inertia = Double.parseDouble(value); break;
+                    case "w1": params.w1 = Double.parseDouble(value); break;
+                    case "w2": params.w2 = Double.parseDouble(value); break;
+                    case "maxStagnation": params.maxStagnation = Integer.parseInt(value); break;
+                    case "repairSteps": params.repairSteps = Integer.parseInt(value); break;
+                    case "prunedInit": params.prunedInit = Boolean.parseBoolean(value); break;
+                    case "adaptive": params.adaptive = Boolean.parseBoolean(value); break;
+                    case "telemetry": params.telemetry = value; break;
+                }
+            }
+        }
+
+        return params;
+    }
+}
@@ -0,0 +1,159 @@
+package com.ArloDante.coloredqueens.util;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+
+import com.ArloDante.coloredqueens.objects.BoardView;
+import com.ArloDante.coloredqueens.objects.Cell;
+
+//Reads the corpus written by CorpusPacker. The file is memory-mapped once, a board is a view on its bytes
+//so nothing is decoded until a cell is asked for. Lookups only do absolute reads, any number of threads can share one instance.
+//
+//Layout (big endian):
+//  int magic "CQB1", int count
+//  count * (short size, short level, int offset), sorted by size and level
+//  at every offset: short size, short regionCount, byte idBytes (1 or 2),
+//                   regionCount * int rgb, size * size region ids (row by row)
+public class PackedCorpus implements AutoCloseable {
+    static final int MAGIC = 0x43514231; //"CQB1"
+    static final int HEADER_BYTES = 8;
+    static final int INDEX_ENTRY_BYTES = 8;
+
+    public static final String DEFAULT_FILE = "boards.cqc";
+
+    private FileChannel channel;
+    private MappedByteBuffer buffer;
+    private int count;
+
+    public PackedCorpus(File file) throws IOException {
+        this.channel = FileChannel.open(file.toPath(), StandardOpenOption.READ);
+        this.buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+
+        if (buffer.capacity() < HEADER_BYTES || buffer.getInt(0) != MAGIC) {
+            channel.close();
+            throw new IOException("Not a packed board corpus: " + file);
+        }
+        this.count = buffer.getInt(4);
+    }
+
+    public int size() {
+        return count;
+    }
+
+    public boolean contains(int size, int level) {
+        return indexOf(size, level) >= 0;
+    }
+
+    //null if the corpus has no such board
+    public BoardView getBoard(int size, int level) {
+        int i = indexOf(size, level);
+        return (i < 0) ? null : boardAt(i);
+    }
+
+    //boards in index order, for loading everything
+    public BoardView getBoard(int index) {
+        return boardAt(index);
+    }
+
+    public int getSize(int index) {
+        return buffer.getShort(HEADER_BYTES + index * INDEX_ENTRY_BYTES);
+    }
+
+    public int getLevel(int index) {
+        return buffer.getShort(HEADER_BYTES + index * INDEX_ENTRY_BYTES + 2);
+    }
+
+    private BoardView boardAt(int index) {
+        int offset = buffer.getInt(HEADER_BYTES + index * INDEX_ENTRY_BYTES + 4);
+        int size = buffer.getShort(offset);
+        int regionCount = buffer.getShort(offset + 2);
+        int idBytes = buffer.get(offset + 4);
+        int length = 5 + regionCount * 4 + size * size * idBytes;
+
+        return new PackedBoard(buffer.slice(offset, length), size, regionCount, idBytes);
+    }
+
+    //binary search over the sorted index
+    private int indexOf(int size, int level) {
+        long key = ((long) size << 16) | level;
+        int lo = 0;
+        int hi = count - 1;
+
+        while (lo <= hi) {
+            int mid = (lo + hi) >>> 1;
+            long midKey = ((long) getSize(mid) << 16) | getLevel(mid);
+            if (midKey < key) {
+                lo = mid + 1;
+            } else if (midKey > key) {
+                hi = mid - 1;
+            } else {
+                return mid;
+            }
+        }
+        return -1;
+    }
+
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+
+    //one board record, reads straight from the mapped file
+    private static class PackedBoard implements BoardView {
+        private ByteBuffer record;
+        private int size;
+        private int regionCount;
+        private int idBytes;
+        private int idsStart;
+
+        PackedBoard(ByteBuffer record, int size, int regionCount, int idBytes) {
+            this.record = record;
+            this.size = size;
+            this.regionCount = regionCount;
+            this.idBytes = idBytes;
+            this.idsStart = 5 + regionCount * 4;
+        }
+
+        @Override
+        public int getSize() {
+            return size;
+        }
+
+        @Override
+        public int getRegionCount() {
+            return regionCount;
+        }
+
+        @Override
+        public int getRegion(int row, int col) {
+            int cell = row * size + col;
+            if (idBytes == 1) {
+                return record.get(idsStart + cell) & 0xFF;
+            }
+            return record.getShort(idsStart + cell * 2) & 0xFFFF;
+        }
+
+        @Override
+        public int getRegionRgb(int region) {
+            return record.getInt(5 + region * 4);
+        }
+
+        @Override
+        public List<Cell> toCells() {
+            List<Cell> cells = new ArrayList<>(size * size);
+            for (int row = 0; row < size; row++) {
+                for (int col = 0; col < size; col++) {
+                    int rgb = getRegionRgb(getRegion(row, col));
+                    cells.add(new Cell(row, col, (rgb >> 16) & 0xFF, (rgb >> 8) & 0xFF, rgb & 0xFF));
+                }
+            }
+            return cells;
+        }
+    }
+}
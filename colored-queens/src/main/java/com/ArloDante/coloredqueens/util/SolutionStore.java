@@ -0,0 +1,224 @@
+package com.ArloDante.coloredqueens.util;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.zip.CRC32;
+
+import com.ArloDante.coloredqueens.objects.Board;
+import com.ArloDante.coloredqueens.objects.BoardFingerprint;
+import com.ArloDante.coloredqueens.objects.BoardView;
+
+//Solutions kept on disk, keyed by the canonical fingerprint of the board, so a board (or any rotation,
+//mirror image or recoloring of it) only has to be solved once. Placements are stored in canonical
+//coordinates and mapped back onto the asked board on lookup.
+//The file is only ever appended to. Every record ends with a CRC32, when the file is opened the records are
+//checked and everything from the first torn or corrupt record on is cut off, so a crash during an append
+//loses only that record. Lookups are absolute reads on a mapping of the file and can run on any number of
+//threads, appends are serialized.
+//
+//Layout (big endian):
+//  int magic "CQS1"
+//  records: short size, long high, long low, size * short queen column per canonical row, int crc32
+public class SolutionStore implements AutoCloseable {
+    static final int MAGIC = 0x43515331; //"CQS1"
+    static final int HEADER_BYTES = 4;
+
+    public static final String DEFAULT_FILE = "solutions.cqs";
+
+    private FileChannel channel;
+    private volatile MappedByteBuffer buffer;
+    private long end;
+
+    private ConcurrentHashMap<Key, Long> offsets = new ConcurrentHashMap<>();
+
+    private static class Key {
+        final int size;
+        final long high;
+        final long low;
+
+        Key(int size, long high, long low) {
+            this.size = size;
+            this.high = high;
+            this.low = low;
+        }
+
+        Key(BoardFingerprint fingerprint) {
+            this(fingerprint.getSize(), fingerprint.getHigh(), fingerprint.getLow());
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (!(o instanceof Key)) return false;
+            Key other = (Key) o;
+            return size == other.size && high == other.high && low == other.low;
+        }
+
+        @Override
+        public int hashCode() {
+            return (int) (low ^ (low >>> 32));
+        }
+    }
+
+    public SolutionStore(File file) throws IOException {
+        this.channel = FileChannel.open(file.toPath(),
+                StandardOpenOption.READ, StandardOpenOption.WRITE, StandardOpenOption.CREATE);
+
+        try {
+            if (channel.size() < HEADER_BYTES) {
+                //new file, or a crash before the header was complete
+                channel.truncate(0);
+                ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES).putInt(0, MAGIC);
+                channel.write(header, 0);
+            }
+
+            buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            if (buffer.getInt(0) != MAGIC) {
+                throw new IOException("Not a solution store: " + file);
+            }
+
+            end = scan();
+            if (end < channel.size()) {
+                channel.truncate(end);
+                buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, end);
+            }
+        } catch (IOException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    //solutions.cqs in the working directory, created when missing
+    public static SolutionStore open() throws IOException {
+        return new SolutionStore(new File(DEFAULT_FILE));
+    }
+
+    //indexes every intact record, returns where the intact part of the file ends
+    private long scan() {
+        int pos = HEADER_BYTES;
+        int limit = buffer.capacity();
+        CRC32 crc = new CRC32();
+
+        while (pos + 2 <= limit) {
+            int size = buffer.getShort(pos);
+            int length = recordBytes(size);
+            if (size <= 0 || pos + length > limit) break;
+
+            crc.reset();
+            crc.update(buffer.slice(pos, length - 4));
+            if ((int) crc.getValue() != buffer.getInt(pos + length - 4)) break;
+
+            offsets.putIfAbsent(new Key(size, buffer.getLong(pos + 2), buffer.getLong(pos + 10)), (long) pos);
+            pos += length;
+        }
+
+        return pos;
+    }
+
+    private static int recordBytes(int size) {
+        return 2 + 16 + size * 2 + 4;
+    }
+
+    public boolean contains(BoardFingerprint fingerprint) {
+        return offsets.containsKey(new Key(fingerprint));
+    }
+
+    public int[][] get(BoardView board) {
+        return get(BoardFingerprint.of(board));
+    }
+
+    public int[][] get(Board board) {
+        return get(BoardFingerprint.of(board));
+    }
+
+    //queens as {row, col} on the fingerprinted board, sorted by row, null if the board was never stored
+    public int[][] get(BoardFingerprint fingerprint) {
+        Long offset = offsets.get(new Key(fingerprint));
+        if (offset == null) return null;
+
+        int size = fingerprint.getSize();
+        ByteBuffer mapped = mapping(offset + recordBytes(size));
+        int columns = (int) (offset + 18);
+
+        int[][] placements = new int[size][];
+        for (int r = 0; r < size; r++) {
+            int c = fingerprint.fromCanonical(r, mapped.getShort(columns + r * 2));
+            placements[r] = new int[]{c / size, c % size};
+        }
+        Arrays.sort(placements, (a, b) -> Integer.compare(a[0], b[0]));
+        return placements;
+    }
+
+    public boolean put(BoardView board, List<int[]> placements) throws IOException {
+        return put(BoardFingerprint.of(board), placements);
+    }
+
+    //placements as {row, col} on the fingerprinted board, one queen per row.
+    //returns false if the board (or an equivalent one) is already stored
+    public synchronized boolean put(BoardFingerprint fingerprint, List<int[]> placements) throws IOException {
+        Key key = new Key(fingerprint);
+        if (offsets.containsKey(key)) return false;
+
+        int size = fingerprint.getSize();
+        short[] columns = new short[size];
+        Arrays.fill(columns, (short) -1);
+        for (int[] queen : placements) {
+            int c = fingerprint.toCanonical(queen[0], queen[1]);
+            columns[c / size] = (short) (c % size);
+        }
+
+        int length = recordBytes(size);
+        ByteBuffer record = ByteBuffer.allocate(length);
+        record.putShort((short) size).putLong(fingerprint.getHigh()).putLong(fingerprint.getLow());
+        for (short column : columns) {
+            if (column < 0) throw new IllegalArgumentException("Not one queen per row: " + placements.size() + " queens on a " + size + "x" + size + " board");
+            record.putShort(column);
+        }
+        CRC32 crc = new CRC32();
+        crc.update(record.array(), 0, length - 4);
+        record.putInt((int) crc.getValue());
+        record.flip();
+
+        long pos = end;
+        while (record.hasRemaining()) {
+            channel.write(record, pos + record.position());
+        }
+        end = pos + length;
+
+        //published only after the bytes are in the file, readers remap when they see it
+        offsets.put(key, pos);
+        return true;
+    }
+
+    private ByteBuffer mapping(long needed) {
+        MappedByteBuffer current = buffer;
+        if (current.capacity() >= needed) return current;
+
+        synchronized (this) {
+            if (buffer.capacity() < needed) {
+                try {
+                    buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, end);
+                } catch (IOException e) {
+                    throw new IllegalStateException("Could not remap the solution store", e);
+                }
+            }
+            return buffer;
+        }
+    }
+
+    //stored boards up to symmetry
+    public int size() {
+        return offsets.size();
+    }
+
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+}